@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+/**
+ * Walker's alias table, built with Vose's method, for sampling a discrete
+ * distribution over indices 0..n-1 in constant time: one uniform value selects a
+ * column and, by its fractional part, either the column or its alias. The table
+ * is held in primitive arrays and is immutable once built.
+ * 
+ * @author Gary R. Mayer
+ */
+public final class AliasTable {
+    private final double[] cutoff;      // probability of keeping the column
+    private final int[] alias;          // index used otherwise
+    
+    /**
+     * Builds the table.
+     * 
+     * @param weights nonnegative weights of the indices; normalized by their sum
+     */
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        double total = 0.0;
+        
+        for (double w : weights) {
+            if (!(w >= 0.0) || Double.isInfinite(w)) {
+                throw new IllegalArgumentException("Weights must be finite and nonnegative.");
+            }
+            total += w;
+        }
+        
+        if (n == 0 || total <= 0.0) {
+            throw new IllegalArgumentException("At least one weight must be positive.");
+        }
+        
+        this.cutoff = new double[n];
+        this.alias = new int[n];
+        
+        // scale to mean 1 and split the columns into under- and overfull ones
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int numSmall = 0;
+        int numLarge = 0;
+        
+        for (int i = 0; i < n; i++) {
+            this.cutoff[i] = weights[i] * n / total;
+            this.alias[i] = i;
+            
+            if (this.cutoff[i] < 1.0)
+                small[numSmall++] = i;
+            else
+                large[numLarge++] = i;
+        }
+        
+        // top up each underfull column from an overfull one
+        while (numSmall > 0 && numLarge > 0) {
+            int s = small[--numSmall];
+            int l = large[--numLarge];
+            
+            this.alias[s] = l;
+            this.cutoff[l] = (this.cutoff[l] + this.cutoff[s]) - 1.0;
+            
+            if (this.cutoff[l] < 1.0)
+                small[numSmall++] = l;
+            else
+                large[numLarge++] = l;
+        }
+        
+        // what remains is full up to rounding error
+        while (numLarge > 0) {
+            this.cutoff[large[--numLarge]] = 1.0;
+        }
+        while (numSmall > 0) {
+            this.cutoff[small[--numSmall]] = 1.0;
+        }
+    }
+    
+    /**
+     * Maps a uniform value to an index of the distribution.
+     * 
+     * @param uniform a value uniformly distributed over [0,1)
+     * @return the sampled index
+     */
+    public int sample(double uniform) {
+        double scaled = uniform * this.cutoff.length;
+        int column = (int) scaled;
+        
+        if (column >= this.cutoff.length)
+            column = this.cutoff.length - 1;
+        
+        return (scaled - column < this.cutoff[column]) ? column : this.alias[column];
+    }
+    
+    public int size() {
+        return this.cutoff.length;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+/**
+ * Wraps a uniform source and returns the antithetic of each value: 1 - U, taken
+ * on the 2^-53 grid so that results stay within [0,1), and the complement of each
+ * long. A replication driven by antithetic sources is negatively correlated with
+ * the one driven by the original sources, and averaging the pair reduces the
+ * variance of the estimate. This holds only for variates that are monotone in the
+ * uniforms, such as those produced by inversion; a generator that picks table
+ * entries from the bits, such as the exponential ziggurat, loses the correlation.
+ * 
+ * @author Gary R. Mayer
+ */
+public class AntitheticSource implements UniformSource {
+    private static final double ONE_MINUS_ULP = 1.0 - 0x1.0p-53;
+    
+    private final UniformSource source;
+    
+    /**
+     * Creates an antithetic view of a source; the source must not be used directly
+     * afterwards.
+     * 
+     * @param source the original source
+     */
+    public AntitheticSource(UniformSource source) {
+        this.source = source;
+    }
+    
+    @Override
+    public double nextDouble() {
+        return ONE_MINUS_ULP - this.source.nextDouble();
+    }
+    
+    @Override
+    public long nextLong() {
+        return ~this.source.nextLong();
+    }
+    
+    @Override
+    public void setSeed(long seed) {
+        this.source.setSeed(seed);
+    }
+    
+    @Override
+    public UniformSource split() {
+        return new AntitheticSource(this.source.split());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+/**
+ * Wraps a random variate generator and hands out its variates from a buffer that
+ * is refilled in blocks with fill, amortizing the per-variate call overhead. The
+ * sequence of variates is the same as the wrapped generator's. Reseeding or
+ * replacing the uniform source discards the buffered variates.
+ * 
+ * @author Gary R. Mayer
+ */
+public class BufferedGenr extends RandomVariateGenr {
+    private final RandomVariateGenr genr;
+    private final double[] buffer;
+    private int next;
+    
+    /**
+     * Creates a buffered generator.
+     * 
+     * @param genr the generator to draw from; must not be used directly afterwards
+     * @param bufferSize number of variates drawn per refill
+     */
+    public BufferedGenr(RandomVariateGenr genr, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least one.");
+        }
+        
+        this.genr = genr;
+        this.rand = genr.getRandomSource();
+        this.buffer = new double[bufferSize];
+        this.next = bufferSize;
+    }
+    
+    @Override
+    public void fill(double[] dst, int off, int len) {
+        checkRange(dst, off, len);
+        
+        // drain the buffer, then fill the rest directly
+        int buffered = Math.min(len, this.buffer.length - this.next);
+        System.arraycopy(this.buffer, this.next, dst, off, buffered);
+        this.next += buffered;
+        this.genr.fill(dst, off + buffered, len - buffered);
+    }
+    
+    @Override
+    public double getMean() {
+        return this.genr.getMean();
+    }
+    
+    @Override
+    public UniformSource getRandomSource() {
+        return this.genr.getRandomSource();
+    }
+    
+    @Override
+    public double nextVariate() {
+        if (this.next == this.buffer.length) {
+            this.genr.fill(this.buffer, 0, this.buffer.length);
+            this.next = 0;
+        }
+        
+        return this.buffer[this.next++];
+    }
+    
+    @Override
+    public void setRandomSource(UniformSource source) {
+        this.genr.setRandomSource(source);
+        this.rand = source;
+        this.next = this.buffer.length;
+    }
+    
+    @Override
+    public void setSeed(long seed) {
+        this.genr.setSeed(seed);
+        this.next = this.buffer.length;
+    }
+}
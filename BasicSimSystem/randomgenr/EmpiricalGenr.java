@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+import java.util.Arrays;
+
+/**
+ * Generates variates from an empirical distribution, either discrete or
+ * continuous. A discrete distribution takes given values with given weights and
+ * is sampled through an alias table. A continuous distribution is built from
+ * observed data and sampled by inverting the piecewise-linear interpolation of
+ * its empirical distribution function, so variates fall between the smallest and
+ * largest observation.
+ * 
+ * @author Gary R. Mayer
+ */
+public class EmpiricalGenr extends RandomVariateGenr {
+    private final double[] values;
+    private final AliasTable aliasTable;     // null for a continuous distribution
+    private final double mean;
+    
+    /**
+     * Constructor for a continuous distribution.
+     * 
+     * @param observations at least two observed values, in any order
+     */
+    public EmpiricalGenr(double[] observations) {
+        super();
+        
+        if (observations.length < 2) {
+            throw new IllegalArgumentException("At least two observations are required.");
+        }
+        
+        this.values = observations.clone();
+        Arrays.sort(this.values);
+        this.aliasTable = null;
+        
+        // each segment between neighbouring order statistics is equally likely
+        double sum = 0.0;
+        for (int i = 0; i < this.values.length - 1; i++) {
+            sum += (this.values[i] + this.values[i + 1]) / 2.0;
+        }
+        this.mean = sum / (this.values.length - 1);
+    }
+    
+    /**
+     * Constructor for a discrete distribution.
+     * 
+     * @param values the values that may be produced
+     * @param weights nonnegative weight of each value; normalized by their sum
+     */
+    public EmpiricalGenr(double[] values, double[] weights) {
+        super();
+        
+        if (values.length != weights.length) {
+            throw new IllegalArgumentException("Each value must have one weight.");
+        }
+        
+        this.values = values.clone();
+        this.aliasTable = new AliasTable(weights);
+        
+        double sum = 0.0;
+        double total = 0.0;
+        for (int i = 0; i < values.length; i++) {
+            sum += weights[i] * values[i];
+            total += weights[i];
+        }
+        this.mean = sum / total;
+    }
+    
+    /**
+     * Provides the mean of the table: the weighted mean of the values, or for a
+     * continuous distribution the mean of the interpolated distribution.
+     * 
+     * @return the mean
+     */
+    @Override
+    public double getMean() {
+        return this.mean;
+    }
+    
+    /**
+     * Produces the next random variate from the empirical distribution.
+     * 
+     * @return a random variate from the empirical distribution
+     */
+    @Override
+    public double nextVariate() {
+        double RND = rand.nextDouble();     // uniform random value [0,1)
+        
+        if (this.aliasTable != null)
+            return this.values[this.aliasTable.sample(RND)];
+        
+        // interpolate between the order statistics around the uniform's position
+        double position = RND * (this.values.length - 1);
+        int i = Math.min((int) position, this.values.length - 2);
+        return this.values[i] + (position - i)*(this.values[i + 1] - this.values[i]);
+    }
+}
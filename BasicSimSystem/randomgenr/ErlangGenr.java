@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+/**
+ * Generates Erlang-k variates: the sum of k independent exponential phases, e.g.,
+ * a service made of k stages. Uses the product of k uniforms so that only one
+ * logarithm is taken per 32 phases.
+ * 
+ * @author Gary R. Mayer
+ */
+public class ErlangGenr extends RandomVariateGenr {
+    private static final int PHASES_PER_LOG = 32;     // keeps the product from underflowing
+    
+    private int phases;
+    private double phaseMean;     // mean of one phase
+    
+    /**
+     * Constructor.
+     * 
+     * @param phases number of phases k; at least 1
+     * @param eventRate average events per unit time, i.e., 1/mean of the whole variate
+     */
+    public ErlangGenr(int phases, double eventRate) {
+        super();
+        setParameters(phases, eventRate);
+    }
+    
+    /**
+     * Constructor to specify the random seed to use in pseudorandom number
+     * generation.
+     * 
+     * @param phases number of phases k; at least 1
+     * @param eventRate average events per unit time, i.e., 1/mean of the whole variate
+     * @param seed pseudorandom number seed value
+     */
+    public ErlangGenr(int phases, double eventRate, long seed) {
+        super(seed);
+        setParameters(phases, eventRate);
+    }
+    
+    @Override
+    public double getMean() {
+        return this.phases * this.phaseMean;
+    }
+    
+    /**
+     * Produces the next random variate from an Erlang distribution.
+     * 
+     * @return a random variate from an Erlang distribution
+     */
+    @Override
+    public double nextVariate() {
+        double logSum = 0.0;
+        int remaining = this.phases;
+        
+        while (remaining > 0) {
+            int n = Math.min(remaining, PHASES_PER_LOG);
+            double product = 1.0;
+            
+            for (int i = 0; i < n; i++) {
+                product *= 1.0 - rand.nextDouble();     // in (0,1]
+            }
+            
+            logSum += Math.log(product);
+            remaining -= n;
+        }
+        
+        return -this.phaseMean * logSum;
+    }
+    
+    /**
+     * Modifies the distribution parameters.
+     * 
+     * @param phases number of phases k; at least 1
+     * @param eventRate average events per unit time, i.e., 1/mean of the whole variate
+     */
+    public final void setParameters(int phases, double eventRate) {
+        if (phases < 1 || !(eventRate > 0.0)) {
+            throw new IllegalArgumentException("Phases must be at least one and the event rate positive.");
+        }
+        
+        this.phases = phases;
+        this.phaseMean = 1.0 / (phases * eventRate);
+    }
+}
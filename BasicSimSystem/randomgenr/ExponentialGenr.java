@@ -28,12 +28,34 @@ package randomgenr;
 /**
  * Provides a random variate from an inverse exponential distribution.
  * Typically used to determine the time between independent events determined
- * from a Poisson distribution representing events per unit time.
+ * from a Poisson distribution representing events per unit time. Variates are
+ * produced by inverse transform or, if selected, by the ziggurat method.
  * 
  * @author Gary R. Mayer
  */
 public class ExponentialGenr extends RandomVariateGenr {
-    private double avgRate;    // average arrival per unit time
+    // ziggurat of 256 layers of equal area for the unit exponential density
+    private static final int LAYERS = 256;
+    private static final double R = 7.69711747013104972;        // start of the tail
+    private static final double AREA = 0.0039496598225815571993; // area of each layer
+    private static final double[] X = new double[LAYERS + 1];    // layer widths
+    private static final double[] F = new double[LAYERS + 1];    // density at each width
+    
+    static {
+        X[0] = AREA / Math.exp(-R);
+        X[1] = R;
+        for (int i = 1; i < LAYERS - 1; i++) {
+            X[i + 1] = -Math.log(AREA/X[i] + Math.exp(-X[i]));
+        }
+        X[LAYERS] = 0.0;
+        
+        for (int i = 0; i <= LAYERS; i++) {
+            F[i] = Math.exp(-X[i]);
+        }
+    }
+    
+    private double mean;       // 1/(average arrivals per unit time)
+    private ExponentialMethod method;
     
     /**
      * Default constructor.
@@ -41,7 +63,8 @@ public class ExponentialGenr extends RandomVariateGenr {
      */
     public ExponentialGenr() {
         super();
-        this.avgRate = 1.0;
+        setEventRate(1.0);
+        this.method = ExponentialMethod.INVERSION;
     }
     
     /**
@@ -52,7 +75,33 @@ public class ExponentialGenr extends RandomVariateGenr {
      */
     public ExponentialGenr(long seed) {
         super(seed);
-        this.avgRate = 1.0;
+        setEventRate(1.0);
+        this.method = ExponentialMethod.INVERSION;
+    }
+    
+    @Override
+    public void fill(double[] dst, int off, int len) {
+        checkRange(dst, off, len);
+        
+        if (this.method == ExponentialMethod.ZIGGURAT) {
+            for (int i = off; i < off + len; i++) {
+                dst[i] = this.mean * nextZiggurat();
+            }
+        }
+        else {
+            for (int i = off; i < off + len; i++) {
+                dst[i] = -this.mean * Math.log(1.0 - rand.nextDouble());
+            }
+        }
+    }
+    
+    public ExponentialMethod getMethod() {
+        return this.method;
+    }
+    
+    @Override
+    public double getMean() {
+        return this.mean;
     }
     
     /**
@@ -65,10 +114,13 @@ public class ExponentialGenr extends RandomVariateGenr {
      */
     @Override
     public double nextVariate() {
+        if (this.method == ExponentialMethod.ZIGGURAT)
+            return this.mean * nextZiggurat();
+        
         double RND = rand.nextDouble();     // uniform random value [0,1)
         
         // use inverse-transform technique
-        return (-((1.0/this.avgRate) * Math.log(1.0 - RND)));
+        return -this.mean * Math.log(1.0 - RND);
     }
     
     /**
@@ -78,7 +130,48 @@ public class ExponentialGenr extends RandomVariateGenr {
      * @param eventRate average arrival rate per unit time
      * (e.g., if 2.5 customers per minute is the rate, then 2.5 should be used.)
      */
-    public void setEventRate(double eventRate) {
-        this.avgRate = eventRate;
+    public final void setEventRate(double eventRate) {
+        this.mean = 1.0 / eventRate;
+    }
+    
+    /**
+     * Selects the method used to produce variates. Both methods give the same
+     * distribution but different sequences for the same seed. Only inversion is
+     * monotone in its uniform, so only inversion turns an AntitheticSource into
+     * negatively correlated variates; with the ziggurat the antithetic run is
+     * practically uncorrelated and pairing it gains nothing.
+     * 
+     * @param method the method
+     */
+    public void setMethod(ExponentialMethod method) {
+        if (method == null) {
+            throw new IllegalArgumentException("Method must not be null.");
+        }
+        
+        this.method = method;
+    }
+    
+    /**
+     * Draws a unit exponential variate with the ziggurat method.
+     */
+    private double nextZiggurat() {
+        while (true) {
+            // low 8 bits pick the layer, the top 53 the position within it
+            long bits = rand.nextLong();
+            int i = (int) (bits & (LAYERS - 1));
+            double x = (bits >>> 11) * 0x1.0p-53 * X[i];
+            
+            // inside the part of the layer wholly under the curve
+            if (x < X[i + 1])
+                return x;
+            
+            // base layer: the tail beyond R is again exponential
+            if (i == 0)
+                return R - Math.log(1.0 - rand.nextDouble());
+            
+            // wedge: accept if under the curve
+            if (F[i] + (F[i + 1] - F[i])*rand.nextDouble() < Math.exp(-x))
+                return x;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+import java.util.Random;
+
+/**
+ * Uniform source backed by java.util.Random, the generator originally used by
+ * all random variate generators. Kept to reproduce results of earlier runs; each
+ * draw pays for Random's thread-safe compare-and-set.
+ * 
+ * @author Gary R. Mayer
+ */
+public class JdkRandomSource implements UniformSource {
+    private final Random rand;
+    
+    public JdkRandomSource() {
+        this.rand = new Random();
+    }
+    
+    /**
+     * Constructor to specify the random seed.
+     * 
+     * @param seed pseudorandom number seed value
+     */
+    public JdkRandomSource(long seed) {
+        this.rand = new Random(seed);
+    }
+    
+    @Override
+    public double nextDouble() {
+        return this.rand.nextDouble();
+    }
+    
+    @Override
+    public long nextLong() {
+        return this.rand.nextLong();
+    }
+    
+    @Override
+    public void setSeed(long seed) {
+        this.rand.setSeed(seed);
+    }
+    
+    @Override
+    public UniformSource split() {
+        return new JdkRandomSource(this.rand.nextLong());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+/**
+ * Generates lognormal variates, parameterized by the mean and standard deviation
+ * of the variate itself rather than of its logarithm.
+ * 
+ * @author Gary R. Mayer
+ */
+public class LognormalGenr extends RandomVariateGenr {
+    private double mean;
+    private double mu;          // mean of the logarithm
+    private double sigma;       // standard deviation of the logarithm
+    
+    /**
+     * Constructor.
+     * 
+     * @param mean mean of the variate; positive
+     * @param stdDev standard deviation of the variate; positive
+     */
+    public LognormalGenr(double mean, double stdDev) {
+        super();
+        setParameters(mean, stdDev);
+    }
+    
+    /**
+     * Constructor to specify the random seed to use in pseudorandom number
+     * generation.
+     * 
+     * @param mean mean of the variate; positive
+     * @param stdDev standard deviation of the variate; positive
+     * @param seed pseudorandom number seed value
+     */
+    public LognormalGenr(double mean, double stdDev, long seed) {
+        super(seed);
+        setParameters(mean, stdDev);
+    }
+    
+    @Override
+    public double getMean() {
+        return this.mean;
+    }
+    
+    /**
+     * Produces the next random variate from a lognormal distribution.
+     * 
+     * @return a random variate from a lognormal distribution
+     */
+    @Override
+    public double nextVariate() {
+        return Math.exp(this.mu + this.sigma*nextGaussian());
+    }
+    
+    /**
+     * Modifies the distribution parameters.
+     * 
+     * @param mean mean of the variate; positive
+     * @param stdDev standard deviation of the variate; positive
+     */
+    public final void setParameters(double mean, double stdDev) {
+        if (!(mean > 0.0) || !(stdDev > 0.0)) {
+            throw new IllegalArgumentException("Mean and standard deviation must be positive.");
+        }
+        
+        this.mean = mean;
+        double variance = Math.log(1.0 + (stdDev*stdDev)/(mean*mean));
+        this.sigma = Math.sqrt(variance);
+        this.mu = Math.log(mean) - variance/2.0;
+    }
+}
@@ -30,18 +30,44 @@ package randomgenr;
  * unit time. Use the exponential variate generator to calculate time between
  * each event.
  * 
+ * The method adapts to the rate. Below a rate of 10, the variate is found by
+ * inversion: one uniform is searched for in a cumulative distribution table that
+ * is cached for the rate. From a rate of 10 up, Hoermann's PTRS transformed
+ * rejection method is used, which needs about 2.5 uniforms per variate whatever
+ * the rate.
+ * 
  * @author Gary R. Mayer
  */
 public class PoissonGenr extends RandomVariateGenr {
+    private static final double PTRS_THRESHOLD = 10.0;
+    private static final double HALF_LOG_2PI = 0.5 * Math.log(2.0 * Math.PI);
+    private static final double[] LOG_FACTORIAL = new double[10];
+    
+    static {
+        for (int k = 1; k < LOG_FACTORIAL.length; k++) {
+            LOG_FACTORIAL[k] = LOG_FACTORIAL[k - 1] + Math.log(k);
+        }
+    }
+    
     private double avgRate;     // average event per unit time
     
+    // inversion: cumulative probabilities of 0, 1, 2, ... events
+    private double[] cdf;
+    
+    // PTRS constants for the rate
+    private double logRate;
+    private double b;
+    private double a;
+    private double logInvAlpha;
+    private double vr;
+    
     /**
      * Default constructor. 
      * Default, average event rate is 1.0 per unit time.
      */
     public PoissonGenr() {
         super();
-        this.avgRate = 1.0;
+        setEventRate(1.0);
     }
     
     /**
@@ -52,7 +78,12 @@ public class PoissonGenr extends RandomVariateGenr {
      */
     public PoissonGenr(long seed) {
         super(seed);
-        this.avgRate = 1.0;
+        setEventRate(1.0);
+    }
+    
+    @Override
+    public double getMean() {
+        return this.avgRate;
     }
     
     /**
@@ -64,26 +95,7 @@ public class PoissonGenr extends RandomVariateGenr {
      */
     @Override
     public double nextVariate() {
-        double RND;                         // uniform random value [0,1)
-        double exp;                         // exponential value
-        int numTests = 0;                   // number of tests
-        double probabilityOfEvent = 1.0;  // probability of an event
-        int numEvents = 0;                // number events this period
-        
-        // acceptance-rejection method
-        exp = Math.exp(-this.avgRate);
-        
-        while (numEvents == 0) {
-            RND = rand.nextDouble();
-            probabilityOfEvent = probabilityOfEvent*RND;
-
-            if (probabilityOfEvent < exp)
-                numEvents = numTests;
-            else
-                numTests++;
-        }
-        
-        return numEvents;
+        return (this.avgRate < PTRS_THRESHOLD) ? nextByInversion() : nextByRejection();
     }
     
     /**
@@ -93,7 +105,81 @@ public class PoissonGenr extends RandomVariateGenr {
      * @param eventRate average event rate per unit time
      * (e.g., if 2.5 customers per minute is the rate, then 2.5 should be used.)
      */
-    public void setEventRate(double eventRate) {
+    public final void setEventRate(double eventRate) {
+        if (!(eventRate >= 0.0) || Double.isInfinite(eventRate)) {
+            throw new IllegalArgumentException("Event rate must be finite and nonnegative.");
+        }
+        
         this.avgRate = eventRate;
+        
+        if (eventRate < PTRS_THRESHOLD) {
+            buildTable();
+        }
+        else {
+            double sqrtRate = Math.sqrt(eventRate);
+            this.logRate = Math.log(eventRate);
+            this.b = 0.931 + 2.53*sqrtRate;
+            this.a = -0.059 + 0.02483*this.b;
+            this.logInvAlpha = Math.log(1.1239 + 1.1328/(this.b - 3.4));
+            this.vr = 0.9277 - 3.6224/(this.b - 2.0);
+            this.cdf = null;
+        }
+    }
+    
+    private void buildTable() {
+        // tabulate until the remaining tail is below double precision
+        int size = (int) (this.avgRate + 10.0*Math.sqrt(this.avgRate) + 20.0);
+        this.cdf = new double[size];
+        double pmf = Math.exp(-this.avgRate);
+        double sum = pmf;
+        this.cdf[0] = sum;
+        
+        for (int k = 1; k < size; k++) {
+            pmf *= this.avgRate / k;
+            sum += pmf;
+            this.cdf[k] = sum;
+        }
+    }
+    
+    private double nextByInversion() {
+        double RND = rand.nextDouble();     // uniform random value [0,1)
+        int numEvents = 0;
+        
+        while (numEvents < this.cdf.length && RND >= this.cdf[numEvents]) {
+            numEvents++;
+        }
+        
+        return numEvents;
+    }
+    
+    private double nextByRejection() {
+        while (true) {
+            double U = rand.nextDouble() - 0.5;
+            double V = rand.nextDouble();
+            double us = 0.5 - Math.abs(U);
+            long numEvents = (long) Math.floor((2.0*this.a/us + this.b)*U + this.avgRate + 0.43);
+            
+            // squeeze: accept most candidates without a logarithm
+            if (us >= 0.07 && V <= this.vr)
+                return numEvents;
+            
+            if (numEvents < 0 || (us < 0.013 && V > us))
+                continue;
+            
+            if (Math.log(V) + this.logInvAlpha - Math.log(this.a/(us*us) + this.b)
+                    <= -this.avgRate + numEvents*this.logRate - logFactorial(numEvents))
+                return numEvents;
+        }
+    }
+    
+    private static double logFactorial(long k) {
+        if (k < LOG_FACTORIAL.length)
+            return LOG_FACTORIAL[(int) k];
+        
+        // Stirling series; accurate to double precision from k = 10
+        double inv = 1.0 / k;
+        double inv2 = inv*inv;
+        return (k + 0.5)*Math.log(k) - k + HALF_LOG_2PI
+                + inv*(1.0/12 - inv2*(1.0/360 - inv2/1260));
     }
 }
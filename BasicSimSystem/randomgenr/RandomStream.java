@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+/**
+ * A xoshiro256++ stream of 2^192 draws, divided into substreams of 2^128 draws,
+ * in the manner of L'Ecuyer's RngStream package. Streams are handed out by a
+ * RandomStreamManager and never overlap one another. A stream can be rewound to
+ * the start of the stream or of its current substream, or moved to a given
+ * substream. Typically a stream is assigned to one replication and each model
+ * component draws from its own substream. In antithetic mode the stream and the
+ * substream sources it creates return antithetic values.
+ * 
+ * @author Gary R. Mayer
+ */
+public class RandomStream implements UniformSource {
+    private final Xoshiro256PlusPlus current;
+    private final Xoshiro256PlusPlus streamStart;
+    private final Xoshiro256PlusPlus substreamStart;
+    private final int index;
+    private boolean antithetic;
+    
+    RandomStream(Xoshiro256PlusPlus start, int index) {
+        this.current = new Xoshiro256PlusPlus(start);
+        this.streamStart = new Xoshiro256PlusPlus(start);
+        this.substreamStart = new Xoshiro256PlusPlus(start);
+        this.index = index;
+    }
+    
+    /**
+     * Provides the index of this stream within its manager.
+     * 
+     * @return the stream index
+     */
+    public int getIndex() {
+        return this.index;
+    }
+    
+    public boolean isAntithetic() {
+        return this.antithetic;
+    }
+    
+    @Override
+    public double nextDouble() {
+        double u = this.current.nextDouble();
+        return this.antithetic ? (1.0 - 0x1.0p-53) - u : u;
+    }
+    
+    @Override
+    public long nextLong() {
+        long bits = this.current.nextLong();
+        return this.antithetic ? ~bits : bits;
+    }
+    
+    /**
+     * Rewinds to the start of the stream, i.e., substream 0.
+     */
+    public void resetStartStream() {
+        this.substreamStart.copyFrom(this.streamStart);
+        this.current.copyFrom(this.streamStart);
+    }
+    
+    /**
+     * Rewinds to the start of the current substream.
+     */
+    public void resetStartSubstream() {
+        this.current.copyFrom(this.substreamStart);
+    }
+    
+    /**
+     * Moves to the start of the next substream.
+     */
+    public void resetNextSubstream() {
+        this.substreamStart.jump();
+        this.current.copyFrom(this.substreamStart);
+    }
+    
+    /**
+     * Moves to the start of a substream.
+     * 
+     * @param substream index of the substream, counted from the start of the stream
+     */
+    public void setSubstream(int substream) {
+        if (substream < 0) {
+            throw new IllegalArgumentException("Substream index must not be negative.");
+        }
+        
+        this.substreamStart.copyFrom(this.streamStart);
+        for (int s = 0; s < substream; s++) {
+            this.substreamStart.jump();
+        }
+        this.current.copyFrom(this.substreamStart);
+    }
+    
+    /**
+     * Creates an independent source positioned at the start of a substream,
+     * leaving this stream unchanged. The source is antithetic if this stream is.
+     * 
+     * @param substream index of the substream, counted from the start of the stream
+     * @return the source
+     */
+    public UniformSource getSubstream(int substream) {
+        if (substream < 0) {
+            throw new IllegalArgumentException("Substream index must not be negative.");
+        }
+        
+        Xoshiro256PlusPlus source = new Xoshiro256PlusPlus(this.streamStart);
+        for (int s = 0; s < substream; s++) {
+            source.jump();
+        }
+        return this.antithetic ? new AntitheticSource(source) : source;
+    }
+    
+    /**
+     * Switches antithetic mode, in which 1 - U is returned in place of each
+     * uniform value U.
+     * 
+     * @param antithetic true for antithetic values
+     */
+    public void setAntithetic(boolean antithetic) {
+        this.antithetic = antithetic;
+    }
+    
+    /**
+     * Reseeds the stream. The stream then starts at the seed's xoshiro256++ state
+     * and is no longer guaranteed to be disjoint from the manager's other streams.
+     * 
+     * @param seed pseudorandom number seed value
+     */
+    @Override
+    public void setSeed(long seed) {
+        this.streamStart.setSeed(seed);
+        resetStartStream();
+    }
+    
+    /**
+     * Creates a source that starts at the next substream and moves this stream to
+     * the substream after that, so neither overlaps the other for 2^128 draws.
+     * 
+     * @return the new source
+     */
+    @Override
+    public UniformSource split() {
+        resetNextSubstream();
+        UniformSource source = new Xoshiro256PlusPlus(this.current);
+        resetNextSubstream();
+        return this.antithetic ? new AntitheticSource(source) : source;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+import java.util.ArrayList;
+
+/**
+ * Hands out non-overlapping xoshiro256++ streams derived from one master seed.
+ * Stream k starts 2^192 * k draws after the master seed's state, so distinct
+ * streams cannot overlap, and each stream holds 2^64 substreams of 2^128 draws.
+ * Giving replication r of every scenario stream r, and each model component the
+ * same substream of it in every scenario, yields common random numbers across
+ * scenario comparisons.
+ * 
+ * Stream start states are computed once and cached; the manager may be shared by
+ * threads, but each stream it hands out must be used by only one.
+ * 
+ * @author Gary R. Mayer
+ */
+public class RandomStreamManager {
+    private final long masterSeed;
+    private final ArrayList<Xoshiro256PlusPlus> streamStarts;
+    
+    /**
+     * Creates a manager.
+     * 
+     * @param masterSeed seed from which all streams are derived
+     */
+    public RandomStreamManager(long masterSeed) {
+        this.masterSeed = masterSeed;
+        this.streamStarts = new ArrayList<>();
+        this.streamStarts.add(new Xoshiro256PlusPlus(masterSeed));
+    }
+    
+    public long getMasterSeed() {
+        return this.masterSeed;
+    }
+    
+    /**
+     * Creates a new stream positioned at the start of its substream 0. Every call
+     * with the same index yields a stream that reproduces the same sequence.
+     * 
+     * @param index index of the stream
+     * @return the stream
+     */
+    public synchronized RandomStream getStream(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Stream index must not be negative.");
+        }
+        
+        while (this.streamStarts.size() <= index) {
+            Xoshiro256PlusPlus next = new Xoshiro256PlusPlus(this.streamStarts.get(this.streamStarts.size() - 1));
+            next.longJump();
+            this.streamStarts.add(next);
+        }
+        
+        return new RandomStream(this.streamStarts.get(index), index);
+    }
+    
+    /**
+     * Creates a new stream positioned at the start of a substream.
+     * 
+     * @param index index of the stream
+     * @param substream index of the substream
+     * @return the stream
+     */
+    public RandomStream getStream(int index, int substream) {
+        RandomStream stream = getStream(index);
+        stream.setSubstream(substream);
+        return stream;
+    }
+}
@@ -25,27 +25,119 @@
  */
 package randomgenr;
 
-import java.util.Random;
-
 /**
- * Base class for generating different types of random variates. Makes use of
- * Java's default, uniform (pseudo-)random variable generator library.
+ * Base class for generating different types of random variates. Draws uniform
+ * values from a pluggable, unsynchronized uniform source owned by the generator;
+ * xoshiro256++ is used unless another source is set. Blocks of variates can be
+ * drawn with fill to save the per-call overhead.
  * 
  * @author Gary R. Mayer
  */
-abstract class RandomVariateGenr {
-    protected Random rand;
+public abstract class RandomVariateGenr {
+    protected UniformSource rand;
+    private double spareGaussian;       // second normal of the last polar pair
+    private boolean hasSpareGaussian;
+    
+    protected RandomVariateGenr() {
+        rand = UniformSourceType.XOSHIRO_256_PLUS_PLUS.create();
+    }
     
-    RandomVariateGenr() {
-        rand = new Random();
+    protected RandomVariateGenr(long seed) {
+        rand = UniformSourceType.XOSHIRO_256_PLUS_PLUS.create(seed);
+    }
+    
+    /**
+     * Fills part of an array with the next variates, in the order nextVariate
+     * would produce them.
+     * 
+     * @param dst the array to fill
+     * @param off index of the first element to fill
+     * @param len number of variates to produce
+     */
+    public void fill(double[] dst, int off, int len) {
+        checkRange(dst, off, len);
+        
+        for (int i = off; i < off + len; i++) {
+            dst[i] = nextVariate();
+        }
     }
     
-    RandomVariateGenr(long seed) {
-        rand = new Random(seed);
+    /**
+     * Provides the expected value of the variates, e.g., for use as the known
+     * mean of a control variate.
+     * 
+     * @return the mean, or NaN if this generator does not know it
+     */
+    public double getMean() {
+        return Double.NaN;
+    }
+    
+    /**
+     * Provides the uniform source this generator draws from.
+     * 
+     * @return the uniform source
+     */
+    public UniformSource getRandomSource() {
+        return this.rand;
+    }
+    
+    /**
+     * Replaces the uniform source this generator draws from. The source must not
+     * be shared with a generator used on another thread.
+     * 
+     * @param source the uniform source
+     */
+    public void setRandomSource(UniformSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Uniform source must not be null.");
+        }
+        
+        this.rand = source;
+        this.hasSpareGaussian = false;
     }
     
     public void setSeed(long seed) {
         this.rand.setSeed(seed);
+        this.hasSpareGaussian = false;
+    }
+    
+    /**
+     * Checks the arguments of fill.
+     * 
+     * @throws IndexOutOfBoundsException if the range is not within the array
+     */
+    protected static void checkRange(double[] dst, int off, int len) {
+        if (off < 0 || len < 0 || off > dst.length - len) {
+            throw new IndexOutOfBoundsException("Range [" + off + ", " + off + " + " + len
+                    + ") out of bounds for length " + dst.length);
+        }
+    }
+    
+    /**
+     * Draws a standard normal value with Marsaglia's polar method, which yields
+     * normals in pairs; the second of each pair is kept for the next call.
+     * 
+     * @return a normal value with mean 0 and standard deviation 1
+     */
+    protected double nextGaussian() {
+        if (this.hasSpareGaussian) {
+            this.hasSpareGaussian = false;
+            return this.spareGaussian;
+        }
+        
+        double v1;
+        double v2;
+        double s;
+        do {
+            v1 = 2.0*rand.nextDouble() - 1.0;
+            v2 = 2.0*rand.nextDouble() - 1.0;
+            s = v1*v1 + v2*v2;
+        } while (s >= 1.0 || s == 0.0);
+        
+        double multiplier = Math.sqrt(-2.0 * Math.log(s) / s);
+        this.spareGaussian = v2 * multiplier;
+        this.hasSpareGaussian = true;
+        return v1 * multiplier;
     }
     
     /**
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+import java.util.SplittableRandom;
+
+/**
+ * Uniform source backed by java.util.SplittableRandom (SplitMix64). Unsynchronized
+ * and splittable, with a period of 2^64.
+ * 
+ * @author Gary R. Mayer
+ */
+public class SplittableRandomSource implements UniformSource {
+    private SplittableRandom rand;
+    
+    public SplittableRandomSource() {
+        this.rand = new SplittableRandom();
+    }
+    
+    /**
+     * Constructor to specify the random seed.
+     * 
+     * @param seed pseudorandom number seed value
+     */
+    public SplittableRandomSource(long seed) {
+        this.rand = new SplittableRandom(seed);
+    }
+    
+    private SplittableRandomSource(SplittableRandom rand) {
+        this.rand = rand;
+    }
+    
+    @Override
+    public double nextDouble() {
+        return this.rand.nextDouble();
+    }
+    
+    @Override
+    public long nextLong() {
+        return this.rand.nextLong();
+    }
+    
+    @Override
+    public void setSeed(long seed) {
+        this.rand = new SplittableRandom(seed);
+    }
+    
+    @Override
+    public UniformSource split() {
+        return new SplittableRandomSource(this.rand.split());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+/**
+ * Generates triangular variates by inverse transform, e.g., for service times
+ * known only by their minimum, most likely and maximum values.
+ * 
+ * @author Gary R. Mayer
+ */
+public class TriangularGenr extends RandomVariateGenr {
+    private double min;
+    private double max;
+    private double mean;
+    private double cutoff;      // probability of falling below the mode
+    private double lowerSpan;   // (max - min)*(mode - min)
+    private double upperSpan;   // (max - min)*(max - mode)
+    
+    /**
+     * Constructor.
+     * 
+     * @param min the minimum value
+     * @param mode the most likely value
+     * @param max the maximum value
+     */
+    public TriangularGenr(double min, double mode, double max) {
+        super();
+        setParameters(min, mode, max);
+    }
+    
+    /**
+     * Constructor to specify the random seed to use in pseudorandom number
+     * generation.
+     * 
+     * @param min the minimum value
+     * @param mode the most likely value
+     * @param max the maximum value
+     * @param seed pseudorandom number seed value
+     */
+    public TriangularGenr(double min, double mode, double max, long seed) {
+        super(seed);
+        setParameters(min, mode, max);
+    }
+    
+    @Override
+    public double getMean() {
+        return this.mean;
+    }
+    
+    /**
+     * Produces the next random variate from a triangular distribution.
+     * 
+     * @return a random variate from a triangular distribution
+     */
+    @Override
+    public double nextVariate() {
+        double RND = rand.nextDouble();     // uniform random value [0,1)
+        
+        // inverse-transform method, one branch per side of the mode
+        if (RND < this.cutoff)
+            return this.min + Math.sqrt(RND * this.lowerSpan);
+        
+        return this.max - Math.sqrt((1.0 - RND) * this.upperSpan);
+    }
+    
+    /**
+     * Modifies the distribution parameters.
+     * 
+     * @param min the minimum value
+     * @param mode the most likely value
+     * @param max the maximum value
+     */
+    public final void setParameters(double min, double mode, double max) {
+        if (!(min <= mode && mode <= max && min < max)) {
+            throw new IllegalArgumentException("Values must satisfy min <= mode <= max and min < max.");
+        }
+        
+        this.min = min;
+        this.max = max;
+        this.mean = (min + mode + max) / 3.0;
+        this.cutoff = (mode - min) / (max - min);
+        this.lowerSpan = (max - min) * (mode - min);
+        this.upperSpan = (max - min) * (max - mode);
+    }
+}
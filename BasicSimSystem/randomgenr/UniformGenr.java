@@ -69,6 +69,21 @@ public class UniformGenr extends RandomVariateGenr {
         this.max = maxValue;
     }
 
+    @Override
+    public void fill(double[] dst, int off, int len) {
+        checkRange(dst, off, len);
+        double range = this.max - this.min;
+        
+        for (int i = off; i < off + len; i++) {
+            dst[i] = this.min + range*rand.nextDouble();
+        }
+    }
+    
+    @Override
+    public double getMean() {
+        return (this.min + this.max) / 2.0;
+    }
+    
     /**
      * Produces the next random variate from a uniform distribution.
      * 
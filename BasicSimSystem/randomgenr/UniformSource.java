@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+/**
+ * A source of uniformly distributed pseudorandom numbers used by the random
+ * variate generators. Implementations are not synchronized; each generator owns
+ * its own source and a source must not be shared across threads.
+ * 
+ * @author Gary R. Mayer
+ */
+public interface UniformSource {
+    
+    /**
+     * Provides the next uniform value.
+     * 
+     * @return a double value uniformly distributed over [0,1)
+     */
+    double nextDouble();
+    
+    /**
+     * Provides the next 64 pseudorandom bits.
+     * 
+     * @return a uniformly distributed long value
+     */
+    long nextLong();
+    
+    /**
+     * Reinitializes the source so that it reproduces the sequence for the seed.
+     * 
+     * @param seed pseudorandom number seed value
+     */
+    void setSeed(long seed);
+    
+    /**
+     * Creates a new source, statistically independent of this one, and advances
+     * this source.
+     * 
+     * @return the new source
+     */
+    UniformSource split();
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+/**
+ * The uniform sources available to the random variate generators.
+ * 
+ * @author Gary R. Mayer
+ */
+public enum UniformSourceType {
+    /** java.util.Random; reproduces results of earlier runs */
+    JDK_RANDOM,
+    /** java.util.SplittableRandom */
+    SPLITTABLE_RANDOM,
+    /** xoshiro256++; the default */
+    XOSHIRO_256_PLUS_PLUS;
+    
+    /**
+     * Creates a new, unseeded source of this type.
+     * 
+     * @return the source
+     */
+    public UniformSource create() {
+        switch (this) {
+            case JDK_RANDOM:
+                return new JdkRandomSource();
+            case SPLITTABLE_RANDOM:
+                return new SplittableRandomSource();
+            default:
+                return new Xoshiro256PlusPlus();
+        }
+    }
+    
+    /**
+     * Creates a new source of this type.
+     * 
+     * @param seed pseudorandom number seed value
+     * @return the source
+     */
+    public UniformSource create(long seed) {
+        switch (this) {
+            case JDK_RANDOM:
+                return new JdkRandomSource(seed);
+            case SPLITTABLE_RANDOM:
+                return new SplittableRandomSource(seed);
+            default:
+                return new Xoshiro256PlusPlus(seed);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+/**
+ * Generates Weibull variates by inverse transform.
+ * 
+ * @author Gary R. Mayer
+ */
+public class WeibullGenr extends RandomVariateGenr {
+    // Lanczos approximation of the gamma function, g = 7, nine coefficients
+    private static final double LANCZOS_G = 7.0;
+    private static final double[] LANCZOS = {
+        0.99999999999980993, 676.5203681218851, -1259.1392167224028,
+        771.32342877765313, -176.61502916214059, 12.507343278686905,
+        -0.13857109526572012, 9.9843695780195716e-6, 1.5056327351493116e-7
+    };
+    
+    private double invShape;    // 1/shape
+    private double scale;
+    
+    /**
+     * Constructor.
+     * 
+     * @param shape shape parameter; positive
+     * @param scale scale parameter; positive
+     */
+    public WeibullGenr(double shape, double scale) {
+        super();
+        setParameters(shape, scale);
+    }
+    
+    /**
+     * Constructor to specify the random seed to use in pseudorandom number
+     * generation.
+     * 
+     * @param shape shape parameter; positive
+     * @param scale scale parameter; positive
+     * @param seed pseudorandom number seed value
+     */
+    public WeibullGenr(double shape, double scale, long seed) {
+        super(seed);
+        setParameters(shape, scale);
+    }
+    
+    /**
+     * Provides the mean, scale * Gamma(1 + 1/shape).
+     * 
+     * @return the mean
+     */
+    @Override
+    public double getMean() {
+        return this.scale * gamma(1.0 + this.invShape);
+    }
+    
+    /**
+     * Produces the next random variate from a Weibull distribution.
+     * 
+     * @return a random variate from a Weibull distribution
+     */
+    @Override
+    public double nextVariate() {
+        double RND = rand.nextDouble();     // uniform random value [0,1)
+        
+        // inverse-transform method
+        return this.scale * Math.pow(-Math.log(1.0 - RND), this.invShape);
+    }
+    
+    /**
+     * Modifies the distribution parameters.
+     * 
+     * @param shape shape parameter; positive
+     * @param scale scale parameter; positive
+     */
+    public final void setParameters(double shape, double scale) {
+        if (!(shape > 0.0) || !(scale > 0.0)) {
+            throw new IllegalArgumentException("Shape and scale must be positive.");
+        }
+        
+        this.invShape = 1.0 / shape;
+        this.scale = scale;
+    }
+    
+    /**
+     * Evaluates the gamma function for x >= 1 by the Lanczos approximation, to
+     * about 15 significant digits.
+     */
+    private static double gamma(double x) {
+        double z = x - 1.0;
+        double sum = LANCZOS[0];
+        for (int i = 1; i < LANCZOS.length; i++) {
+            sum += LANCZOS[i] / (z + i);
+        }
+        
+        double t = z + LANCZOS_G + 0.5;
+        return Math.sqrt(2.0 * Math.PI) * Math.pow(t, z + 0.5) * Math.exp(-t) * sum;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+/**
+ * Uniform source implementing Blackman and Vigna's xoshiro256++ generator. It has
+ * a period of 2^256 - 1, passes the usual statistical test batteries and needs
+ * only a few shifts, rotations and additions per draw. The state is initialized
+ * from the seed with SplitMix64, as its authors recommend. The jump functions
+ * advance the generator by 2^128 or 2^192 draws, which divides its period into
+ * non-overlapping streams and substreams.
+ * 
+ * @author Gary R. Mayer
+ */
+public class Xoshiro256PlusPlus implements UniformSource {
+    private static final long[] JUMP = {
+        0x180EC6D33CFD0ABAL, 0xD5A61266F0C9392CL, 0xA9582618E03FC9AAL, 0x39ABDC4529B1661CL
+    };
+    private static final long[] LONG_JUMP = {
+        0x76E15D3EFEFDCBBFL, 0xC5004E441C522FB3L, 0x77710069854EE241L, 0x39109BB02ACBE635L
+    };
+    
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+    
+    public Xoshiro256PlusPlus() {
+        this(System.nanoTime() ^ Thread.currentThread().getId() * 0x9E3779B97F4A7C15L);
+    }
+    
+    /**
+     * Constructor to specify the random seed.
+     * 
+     * @param seed pseudorandom number seed value
+     */
+    public Xoshiro256PlusPlus(long seed) {
+        setSeed(seed);
+    }
+    
+    /**
+     * Copy constructor; the copy continues the same sequence independently.
+     * 
+     * @param other the generator to copy
+     */
+    public Xoshiro256PlusPlus(Xoshiro256PlusPlus other) {
+        copyFrom(other);
+    }
+    
+    /**
+     * Sets this generator's state to that of another generator.
+     * 
+     * @param other the generator to copy
+     */
+    public final void copyFrom(Xoshiro256PlusPlus other) {
+        this.s0 = other.s0;
+        this.s1 = other.s1;
+        this.s2 = other.s2;
+        this.s3 = other.s3;
+    }
+    
+    /**
+     * Advances the generator by 2^128 draws.
+     */
+    public void jump() {
+        jump(JUMP);
+    }
+    
+    /**
+     * Advances the generator by 2^192 draws.
+     */
+    public void longJump() {
+        jump(LONG_JUMP);
+    }
+    
+    @Override
+    public double nextDouble() {
+        // top 53 bits scaled into [0,1)
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+    
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(this.s0 + this.s3, 23) + this.s0;
+        long t = this.s1 << 17;
+        
+        this.s2 ^= this.s0;
+        this.s3 ^= this.s1;
+        this.s1 ^= this.s2;
+        this.s0 ^= this.s3;
+        this.s2 ^= t;
+        this.s3 = Long.rotateLeft(this.s3, 45);
+        
+        return result;
+    }
+    
+    @Override
+    public final void setSeed(long seed) {
+        // expand the seed with SplitMix64; never yields the all-zero state
+        long x = seed;
+        this.s0 = mix(x += 0x9E3779B97F4A7C15L);
+        this.s1 = mix(x += 0x9E3779B97F4A7C15L);
+        this.s2 = mix(x += 0x9E3779B97F4A7C15L);
+        this.s3 = mix(x + 0x9E3779B97F4A7C15L);
+    }
+    
+    @Override
+    public UniformSource split() {
+        return new Xoshiro256PlusPlus(nextLong());
+    }
+    
+    private void jump(long[] polynomial) {
+        long t0 = 0L;
+        long t1 = 0L;
+        long t2 = 0L;
+        long t3 = 0L;
+        
+        for (long word : polynomial) {
+            for (int b = 0; b < 64; b++) {
+                if ((word & (1L << b)) != 0) {
+                    t0 ^= this.s0;
+                    t1 ^= this.s1;
+                    t2 ^= this.s2;
+                    t3 ^= this.s3;
+                }
+                nextLong();
+            }
+        }
+        
+        this.s0 = t0;
+        this.s1 = t1;
+        this.s2 = t2;
+        this.s3 = t3;
+    }
+    
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
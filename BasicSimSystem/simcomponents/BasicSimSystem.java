@@ -26,6 +26,7 @@
 package simcomponents;
 
 import java.util.concurrent.ThreadLocalRandom;
+import simstats.BatchMeansEstimator;
 
 /**
  * A simulation system providing an experimental frame for a simulation engine and
@@ -35,11 +36,29 @@ import java.util.concurrent.ThreadLocalRandom;
  * @author Gary R. Mayer
  */
 public class BasicSimSystem {
+    /** system property that runs replications in antithetic pairs when true */
+    public static final String ANTITHETIC_PROPERTY = "replications.antithetic";
 
     /**
-     * Takes up to two (optional) arguments. The first must be a double value that
+     * Takes up to three (optional) arguments. The first must be a double value that
      * represents the end time of the simulation. If a second argument is given,
-     * it must be a long value representing the random number generator seed.
+     * it must be a long value representing the random number generator seed. If a
+     * third argument is given, it must be an int value representing the number of
+     * independent replications to run in parallel; their merged statistics are
+     * reported instead of a single run. Alternatively, the third argument may be a
+     * percentage (e.g., 5%) in which case replications are run until the 95%
+     * confidence interval on the mean time in system is within that percentage of
+     * the mean. A single run reports a batch-means confidence interval on the mean
+     * time in system when enough jobs complete.
+     * 
+     * Replications run in antithetic pairs, with confidence intervals over the
+     * pair averages, when the replications.antithetic system property is true,
+     * e.g., -Dreplications.antithetic=true; a fixed number of replications must
+     * then be even.
+     * 
+     * A single run traces every event, as the original console output did;
+     * replications trace nothing. Either default can be overridden with the
+     * simtrace.level system property, e.g., -Dsimtrace.level=SUMMARY.
      * 
      * @param args the command line arguments
      */
@@ -47,111 +66,99 @@ public class BasicSimSystem {
     public static void main(String[] args) {
         //double endSimTime = 10.0;       // max hours to simulate
         double endSimTime = 8.0;
+        int replications = 1;
+        double relativePrecision = 0.0;
         
         // Generate random seed
         long RandMin = 2500L;
         long RandMax = 3000L;
         long RandLong = ThreadLocalRandom.current().nextLong(RandMin, RandMax);
         
-       
-        // the defined unit time here is an hour
-        double jobArrivalRate = 1.31;    // average jobs per hour
-        int CC_Servers = 3;
-        int ST_Servers = 2;
-        int SM_Servers = 1;
-        int HT_Servers = 3;
-        int HM_Servers = 1;
-        int RC_Servers = 2;
-        
-        // average jobs per hour
-        double CC_ServiceRate = 1.31;
-        double ST_ServiceRate = 0.776;
-        double SM_ServiceRate = 0.228;
-        double HT_ServiceRate = 0.552;
-        double HM_ServiceRate = 0.326;
+        if (args.length > 3) {
+            throw new IllegalArgumentException("A maximum of three arguments is allowed.");
+        }
+        
+        try {
+            if (args.length > 0)
+                endSimTime = Double.valueOf(args[0]);
+            if (args.length > 1)
+                RandLong = Long.valueOf(args[1]);
+            if (args.length > 2 && args[2].endsWith("%"))
+                relativePrecision = Double.valueOf(args[2].substring(0, args[2].length() - 1)) / 100.0;
+            else if (args.length > 2)
+                replications = Integer.valueOf(args[2]);
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("Invalid arguments. The first argument must be a"
+                    + " double value, the second a long value and the third an int value or a"
+                    + " percentage such as 5%.", nfe);
+        }
+        
+        if (relativePrecision > 0.0) {
+            // run replications until the requested precision is reached
+            System.out.println("Running replications to " + args[2] + " precision...\n");
+            SimTrace.setLevel(SimTrace.configuredLevel(TraceLevel.OFF));
+            ReplicationRunner runner = new ReplicationRunner(RandLong, endSimTime);
+            runner.setAntithetic(Boolean.getBoolean(ANTITHETIC_PROPERTY));
+            runner.run(new SequentialStoppingRule(relativePrecision)).report(System.out);
+            System.out.println("\nSIMULATION COMPLETE");
+            return;
+        }
+        
+        if (replications > 1) {
+            // run independent replications in parallel
+            System.out.println("Running " + replications + " replications...\n");
+            SimTrace.setLevel(SimTrace.configuredLevel(TraceLevel.OFF));
+            ReplicationRunner runner = new ReplicationRunner(RandLong, endSimTime);
+            runner.setAntithetic(Boolean.getBoolean(ANTITHETIC_PROPERTY));
+            runner.run(replications).report(System.out);
+            System.out.println("\nSIMULATION COMPLETE");
+            return;
+        }
+        
+        SimTrace.setLevel(SimTrace.configuredLevel(TraceLevel.EVENT));
         
-        double RC_ServiceRate = 9999;
-        double RC_ServiceRate_REPAIR = 9999;
-        double RC_ServiceRate_REPLACE = 9999;
-        
-
         // instantiate simulation components
         SimEngine engine = SimEngine.getInstance();
         engine.setEndTime(endSimTime);
-        Generator genr = new Generator("Field Tech Calls", jobArrivalRate);
-        QueueStation CC_Station = new QueueStation("Call Center", CC_Servers, CC_ServiceRate);
-        QueueStation ST_Station = new QueueStation("Software Tech", ST_Servers, ST_ServiceRate);
-        QueueStation SM_Station = new QueueStation("Software Manager", SM_Servers, SM_ServiceRate);
-        QueueStation HT_Station = new QueueStation("Hardware Tech", HT_Servers, HT_ServiceRate);
-        QueueStation HM_Station = new QueueStation("Hardware Manager", HM_Servers, HM_ServiceRate);
-        QueueStation RC_Station = new QueueStation("Repair Center", RC_Servers, RC_ServiceRate);
-        
-        QueueStation RC_Station_REPAIR = new QueueStation("Repair Center REPAIR", RC_Servers, RC_ServiceRate_REPAIR);
-        QueueStation RC_Station_REPLACE = new QueueStation("Repair Center REPLACE", RC_Servers, RC_ServiceRate_REPLACE);
-        
-        Transducer transd = new Transducer();
-        
-        
-        genr.setRandomSeed(RandLong);
-        CC_Station.setRandomSeed(RandLong);
-        ST_Station.setRandomSeed(RandLong);
-        SM_Station.setRandomSeed(RandLong);
-        HT_Station.setRandomSeed(RandLong);
-        HM_Station.setRandomSeed(RandLong);
-        RC_Station.setRandomSeed(RandLong);
-            
-        RC_Station_REPAIR.setRandomSeed(RandLong);
-        RC_Station_REPLACE.setRandomSeed(RandLong);
-            
-        
-        
-        // register the simulation engine to monitor component events and connect the components
-        genr.register(engine);
-        CC_Station.register(engine);
-        ST_Station.register(engine);
-        SM_Station.register(engine);
-        HT_Station.register(engine);
-        HM_Station.register(engine);
-        RC_Station.register(engine);
-        
-        
-        RC_Station_REPAIR.register(engine);
-        RC_Station_REPLACE.register(engine);
-        
-        // send generator output to station 1
-        // 100% of station 1 output goes to station 2
-        // 20% of station 2 output goes back to station 1; the rest goes to the transducer
-        genr.setQueueStation(CC_Station);
-        
-        CC_Station.addOutputStation(ST_Station, 0.58);
-        CC_Station.addOutputStation(ST_Station, 0.27);
-        CC_Station.addOutputStation(transd, 0.15);
-        
-        ST_Station.addOutputStation(SM_Station, 0.30);
-        ST_Station.addOutputStation(HT_Station, 0.20);
-        ST_Station.addOutputStation(transd, 0.50);
-        
-        SM_Station.addOutputStation(HT_Station, 0.20);
-        SM_Station.addOutputStation(transd, 0.80);
-        
-        HT_Station.addOutputStation(HM_Station, 0.59);
-        //HT_Station.addOutputStation(RC_Station, 0.59);
-        HT_Station.addOutputStation(transd, 0.41);
-        
-        HM_Station.addOutputStation(ST_Station, 0.05);
-        HM_Station.addOutputStation(RC_Station, 0.31);
-        HM_Station.addOutputStation(transd, 0.64);
-        
-        RC_Station.addOutputStation(RC_Station_REPAIR, 0.75);
-        RC_Station.addOutputStation(RC_Station_REPLACE, 0.25);
-        
-        RC_Station_REPAIR.addOutputStation(transd, 1.0);
-        RC_Station_REPLACE.addOutputStation(transd, 1.0);
+        FieldTechNetwork network = new FieldTechNetwork(engine, RandLong);
+        BatchMeansEstimator batchMeans = new BatchMeansEstimator(30, true);
+        network.getTransducer().setBatchMeans(batchMeans);
         
         // run the simulation
         System.out.println("Beginning simulation...\n");
-        genr.initialize();
-        engine.simulate();
+        network.run();
+        
+        Transducer transducer = network.getTransducer();
+        if (transducer.getJobsCompleted() > 0) {
+            System.out.printf("%nJobs completed: %d (%.3f per hour)%n", transducer.getJobsCompleted(),
+                    transducer.getThroughput());
+            // one job has no standard deviation
+            String sd = (transducer.getJobsCompleted() > 1)
+                    ? String.format("%.3f", transducer.getTimeInSystem().getStandardDeviation()) : "n/a";
+            System.out.printf("Time in system: mean %.3f (sd %s; waiting %.3f, in service %.3f),"
+                    + " p50 %.3f, p90 %.3f, p99 %.3f, p99.9 %.3f%n",
+                    transducer.getTimeInSystem().getMean(), sd,
+                    transducer.getWaitInSystem().getMean(), transducer.getServiceInSystem().getMean(),
+                    transducer.getTimeInSystemQuantile(0.5), transducer.getTimeInSystemQuantile(0.9),
+                    transducer.getTimeInSystemQuantile(0.99), transducer.getTimeInSystemQuantile(0.999));
+        }
+        
+        System.out.println("\nTime-average queue length and utilization:");
+        for (QueueStation station : network.getStations()) {
+            StationStatistics stats = station.getStatistics();
+            System.out.printf("  %s: queue %.3f (max %d), utilization %.3f, %d jobs served%n",
+                    stats.getName(), stats.getAverageQueueLength(), stats.getMaxQueueLength(),
+                    stats.getUtilization(), stats.getJobsCompleted());
+        }
+        
+        if (batchMeans.getBatchCount() >= 10) {
+            System.out.printf("%nMean time in system (batch means): %.4f +/- %.4f"
+                    + " (%d batches of %d, lag-1 autocorrelation %.3f)%n",
+                    batchMeans.getMean(), batchMeans.getHalfWidth(0.95),
+                    batchMeans.getBatchCount(), batchMeans.getBatchSize(),
+                    batchMeans.getLag1Autocorrelation());
+        }
+        
         System.out.println("\nSIMULATION COMPLETE");
         
         
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.Arrays;
+
+/**
+ * Event calendar implemented as a calendar queue (R. Brown, 1988). Events are hashed
+ * by time into a circular array of "day" buckets of equal width, each holding a short
+ * sorted list, so both scheduling and polling take O(1) amortized time. Each bucket
+ * also keeps its last node, so an event no earlier than a bucket's last event, such
+ * as one of many simultaneous events, is appended without walking the list. The number of
+ * buckets doubles or halves with the number of pending events, and the bucket width
+ * is then re-derived from the spacing of the earliest pending events. Polls that
+ * repeatedly have to search the bucket heads directly rebuild the calendar only if
+ * the re-estimated width differs from the current one by more than a factor of
+ * two; otherwise the O(n) rebuild would change nothing, e.g., when a few events lie
+ * far past the rest.
+ * 
+ * @author Gary R. Mayer
+ */
+public class CalendarQueueEventCalendar implements EventCalendar {
+    private static final int MIN_BUCKETS = 2;
+    private static final int NIL = EventNodePool.NIL;
+    private static final double WIDTH_CHANGE = 2.0;  // width ratio worth a rebuild
+    private static final int REBUILD_SEARCHES = 2;   // direct searches before re-estimating
+    
+    private final EventNodePool nodes;
+    private int[] buckets;
+    private int[] tails;            // last node of each bucket
+    private int mask;
+    private double width;
+    private long cursor;            // virtual (unwrapped) index of the current bucket
+    private int size;
+    private boolean directSearched; // set when polling had to scan a whole year
+    private int directSearches;     // consecutive polls that searched directly
+    private long resizes;           // calendar rebuilds so far
+    private double[] times;         // scratch for estimating the width
+    
+    public CalendarQueueEventCalendar() {
+        this(1.0);
+    }
+    
+    /**
+     * Creates a calendar queue with an initial bucket width. The width only matters
+     * until the calendar is first rebuilt from its pending events.
+     * 
+     * @param initialWidth initial bucket width in simulation time units
+     */
+    public CalendarQueueEventCalendar(double initialWidth) {
+        if (!(initialWidth > 0.0)) {
+            throw new IllegalArgumentException("Bucket width must be greater than zero.");
+        }
+        
+        this.nodes = new EventNodePool(16);
+        this.width = initialWidth;
+        this.buckets = new int[MIN_BUCKETS];
+        this.tails = new int[MIN_BUCKETS];
+        this.times = new double[0];
+        Arrays.fill(this.buckets, NIL);
+        this.mask = MIN_BUCKETS - 1;
+        clear();
+    }
+    
+    @Override
+    public void add(double time, int priority, long sequence, Simulatable simulatable) {
+        int node = this.nodes.acquire(time, priority, sequence, simulatable);
+        long day = day(time);
+        
+        // keep the cursor at or before the earliest pending event
+        if (this.size == 0 || day < this.cursor) {
+            this.cursor = day;
+        }
+        
+        insert((int) (day & this.mask), node);
+        this.size++;
+        
+        if (this.size > 2*this.buckets.length) {
+            resize(2*this.buckets.length, estimateWidth());
+        }
+    }
+    
+    @Override
+    public final void clear() {
+        this.nodes.clear();
+        Arrays.fill(this.buckets, NIL);
+        Arrays.fill(this.tails, NIL);
+        this.cursor = 0L;
+        this.size = 0;
+        this.directSearched = false;
+        this.directSearches = 0;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+    
+    @Override
+    public double peekTime() {
+        if (this.size == 0)
+            return Double.POSITIVE_INFINITY;
+        
+        return this.nodes.times[this.buckets[locate()]];
+    }
+    
+    @Override
+    public Simulatable poll() {
+        if (this.size == 0)
+            return null;
+        
+        int b = locate();
+        int node = this.buckets[b];
+        Simulatable simulatable = this.nodes.simulatables[node];
+        this.buckets[b] = this.nodes.next[node];
+        if (this.buckets[b] == NIL) {
+            this.tails[b] = NIL;
+        }
+        this.nodes.release(node);
+        this.size--;
+        
+        if (this.buckets.length > MIN_BUCKETS && this.size < this.buckets.length/2) {
+            resize(this.buckets.length/2, estimateWidth());
+        }
+        else if (!this.directSearched) {
+            this.directSearches = 0;
+        }
+        else {
+            this.directSearched = false;
+            
+            // rebuild only if the buckets are clearly too narrow or too wide for
+            // the current spacing of events
+            if (++this.directSearches >= REBUILD_SEARCHES) {
+                this.directSearches = 0;
+                double estimate = estimateWidth();
+                
+                if (estimate > WIDTH_CHANGE*this.width || estimate*WIDTH_CHANGE < this.width) {
+                    resize(this.buckets.length, estimate);
+                }
+            }
+        }
+        
+        return simulatable;
+    }
+    
+    /**
+     * Provides the number of times the calendar has been rebuilt, each an O(n)
+     * operation.
+     * 
+     * @return rebuild count
+     */
+    long getResizeCount() {
+        return this.resizes;
+    }
+    
+    @Override
+    public int size() {
+        return this.size;
+    }
+    
+    private long day(double time) {
+        return (long) Math.floor(time / this.width);
+    }
+    
+    /**
+     * Estimates a bucket width of about three times the average separation of the
+     * earliest quarter of pending events, which are the ones polled next. The
+     * sample is widened past any pile of simultaneous events.
+     */
+    private double estimateWidth() {
+        if (this.size < 2)
+            return this.width;
+        
+        if (this.times.length < this.size) {
+            this.times = new double[Math.max(this.size, 2*this.times.length)];
+        }
+        
+        int n = 0;
+        for (int b = 0; b < this.buckets.length; b++) {
+            for (int node = this.buckets[b]; node != NIL; node = this.nodes.next[node]) {
+                this.times[n++] = this.nodes.times[node];
+            }
+        }
+        Arrays.sort(this.times, 0, n);
+        
+        for (int k = Math.max(1, n/4); ; k = Math.min(n - 1, 2*k)) {
+            double span = this.times[k] - this.times[0];
+            
+            if (span > 0.0)
+                return 3.0*span/k;
+            if (k == n - 1)
+                return this.width;
+        }
+    }
+    
+    /**
+     * Adds a node to a bucket's sorted list, appending it in O(1) if it is not
+     * earlier than the bucket's last node.
+     */
+    private void insert(int b, int node) {
+        int tail = this.tails[b];
+        
+        if (tail == NIL) {
+            this.nodes.next[node] = NIL;
+            this.buckets[b] = node;
+            this.tails[b] = node;
+        }
+        else if (!this.nodes.before(node, tail)) {
+            this.nodes.next[node] = NIL;
+            this.nodes.next[tail] = node;
+            this.tails[b] = node;
+        }
+        else {
+            // the node goes before the tail, which therefore stays last
+            this.buckets[b] = this.nodes.insertSorted(this.buckets[b], node);
+        }
+    }
+    
+    /**
+     * Finds the bucket holding the earliest event and moves the cursor to its day.
+     * Assumes the calendar is not empty.
+     */
+    private int locate() {
+        // scan one year of buckets starting at the cursor
+        for (int i = 0; i < this.buckets.length; i++) {
+            int b = (int) (this.cursor & this.mask);
+            int node = this.buckets[b];
+            
+            if (node != NIL && day(this.nodes.times[node]) <= this.cursor)
+                return b;
+            
+            this.cursor++;
+        }
+        
+        // nothing within a year; search the bucket heads directly
+        int minBucket = -1;
+        int minNode = NIL;
+        
+        for (int b = 0; b < this.buckets.length; b++) {
+            int node = this.buckets[b];
+            
+            if (node != NIL && (minNode == NIL || this.nodes.before(node, minNode))) {
+                minNode = node;
+                minBucket = b;
+            }
+        }
+        
+        this.cursor = day(this.nodes.times[minNode]);
+        this.directSearched = true;
+        
+        return minBucket;
+    }
+    
+    private void resize(int numBuckets, double newWidth) {
+        this.resizes++;
+        
+        // chain all pending events into one list
+        int all = NIL;
+        
+        for (int b = 0; b < this.buckets.length; b++) {
+            int node = this.buckets[b];
+            
+            while (node != NIL) {
+                int following = this.nodes.next[node];
+                this.nodes.next[node] = all;
+                all = node;
+                node = following;
+            }
+        }
+        
+        this.width = newWidth;
+        
+        if (numBuckets != this.buckets.length) {
+            this.buckets = new int[numBuckets];
+            this.tails = new int[numBuckets];
+            this.mask = numBuckets - 1;
+        }
+        
+        Arrays.fill(this.buckets, NIL);
+        Arrays.fill(this.tails, NIL);
+        this.directSearched = false;
+        
+        // rehash the events into the new calendar
+        long minDay = Long.MAX_VALUE;
+        
+        while (all != NIL) {
+            int following = this.nodes.next[all];
+            long day = day(this.nodes.times[all]);
+            insert((int) (day & this.mask), all);
+            minDay = Math.min(minDay, day);
+            all = following;
+        }
+        
+        this.cursor = (this.size == 0) ? 0L : minDay;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+/**
+ * Pending event list used by the simulation engine. Implementations order their
+ * entries by absolute simulation time, then by priority class, then by sequence
+ * number, and hand back the Simulatable whose event is the earliest. Every
+ * implementation therefore produces the same event order.
+ * 
+ * @author Gary R. Mayer
+ */
+public interface EventCalendar {
+    
+    /**
+     * Schedules an event.
+     * 
+     * @param time absolute simulation time of the event
+     * @param priority priority class of the event; lower values execute first
+     * @param sequence unique, increasing number breaking any remaining ties
+     * @param simulatable the Simulatable object to execute at that time
+     */
+    void add(double time, int priority, long sequence, Simulatable simulatable);
+    
+    /**
+     * Removes all pending events.
+     */
+    void clear();
+    
+    boolean isEmpty();
+    
+    /**
+     * Provides the time of the earliest pending event without removing it.
+     * 
+     * @return the earliest event time, or positive infinity if the calendar is empty
+     */
+    double peekTime();
+    
+    /**
+     * Removes the earliest pending event.
+     * 
+     * @return the Simulatable of the earliest event, or null if the calendar is empty
+     */
+    Simulatable poll();
+    
+    int size();
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+/**
+ * The event calendar implementations available to the simulation engine.
+ * 
+ * @author Gary R. Mayer
+ */
+public enum EventCalendarType {
+    /** java.util.PriorityQueue of SimEvent objects; O(log n) */
+    PRIORITY_QUEUE,
+    /** primitive 4-ary heap; O(log n), allocation free */
+    HEAP,
+    /** calendar queue; O(1) amortized */
+    CALENDAR_QUEUE,
+    /** ladder queue; O(1) amortized */
+    LADDER_QUEUE;
+    
+    /**
+     * Creates an empty event calendar of this type.
+     * 
+     * @return a new event calendar
+     */
+    public EventCalendar create() {
+        switch (this) {
+            case PRIORITY_QUEUE:
+                return new PriorityQueueEventCalendar();
+            case CALENDAR_QUEUE:
+                return new CalendarQueueEventCalendar();
+            case LADDER_QUEUE:
+                return new LadderQueueEventCalendar();
+            default:
+                return new HeapEventCalendar(100);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.Arrays;
+
+/**
+ * Pool of event nodes shared by the bucket-based event calendars. Each node is an
+ * index into parallel primitive arrays holding the event time, priority and
+ * sequence number, its Simulatable and the index of the next node in whatever singly linked list the node belongs to.
+ * Released nodes are kept on a free list, so a calendar that has reached its working
+ * size schedules events without allocating.
+ * 
+ * @author Gary R. Mayer
+ */
+class EventNodePool {
+    static final int NIL = -1;
+    
+    double[] times;
+    int[] priorities;
+    long[] sequences;
+    Simulatable[] simulatables;
+    int[] next;
+    private int freeHead;
+    
+    EventNodePool(int initialCapacity) {
+        this.times = new double[initialCapacity];
+        this.priorities = new int[initialCapacity];
+        this.sequences = new long[initialCapacity];
+        this.simulatables = new Simulatable[initialCapacity];
+        this.next = new int[initialCapacity];
+        clear();
+    }
+    
+    /**
+     * Takes a node from the free list, growing the pool if none is available.
+     * 
+     * @param time absolute event time
+     * @param priority priority class of the event
+     * @param sequence sequence number of the event
+     * @param simulatable Simulatable of the event
+     * @return the node index
+     */
+    int acquire(double time, int priority, long sequence, Simulatable simulatable) {
+        if (this.freeHead == NIL) {
+            grow();
+        }
+        
+        int node = this.freeHead;
+        this.freeHead = this.next[node];
+        this.times[node] = time;
+        this.priorities[node] = priority;
+        this.sequences[node] = sequence;
+        this.simulatables[node] = simulatable;
+        this.next[node] = NIL;
+        
+        return node;
+    }
+    
+    /**
+     * Orders two nodes for the purposes of event execution.
+     * 
+     * @return true if node a must be executed before node b
+     */
+    boolean before(int a, int b) {
+        if (this.times[a] != this.times[b])
+            return this.times[a] < this.times[b];
+        
+        if (this.priorities[a] != this.priorities[b])
+            return this.priorities[a] < this.priorities[b];
+        
+        return this.sequences[a] < this.sequences[b];
+    }
+    
+    /**
+     * Returns every node to the free list.
+     */
+    final void clear() {
+        Arrays.fill(this.simulatables, null);
+        int last = this.next.length - 1;
+        
+        for (int n = 0; n < last; n++) {
+            this.next[n] = n + 1;
+        }
+        
+        this.next[last] = NIL;
+        this.freeHead = 0;
+    }
+    
+    /**
+     * Inserts a node into a sorted list after every node that is not later than it.
+     * 
+     * @param head first node of the sorted list
+     * @param node node to insert
+     * @return the (possibly new) first node of the list
+     */
+    int insertSorted(int head, int node) {
+        if (head == NIL || before(node, head)) {
+            this.next[node] = head;
+            return node;
+        }
+        
+        int prev = head;
+        
+        while (this.next[prev] != NIL && !before(node, this.next[prev])) {
+            prev = this.next[prev];
+        }
+        
+        this.next[node] = this.next[prev];
+        this.next[prev] = node;
+        
+        return head;
+    }
+    
+    int length(int head) {
+        int count = 0;
+        
+        for (int n = head; n != NIL; n = this.next[n]) {
+            count++;
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Returns a node to the free list.
+     * 
+     * @param node the node index
+     */
+    void release(int node) {
+        this.simulatables[node] = null;
+        this.next[node] = this.freeHead;
+        this.freeHead = node;
+    }
+    
+    /**
+     * Sorts an unordered list with a stable merge sort.
+     * 
+     * @param head first node of the list
+     * @return first node of the sorted list
+     */
+    int sort(int head) {
+        if (head == NIL || this.next[head] == NIL)
+            return head;
+        
+        // split the list in half using a slow and a fast cursor
+        int slow = head;
+        int fast = this.next[head];
+        
+        while (fast != NIL && this.next[fast] != NIL) {
+            slow = this.next[slow];
+            fast = this.next[this.next[fast]];
+        }
+        
+        int second = this.next[slow];
+        this.next[slow] = NIL;
+        
+        return merge(sort(head), sort(second));
+    }
+    
+    private void grow() {
+        int oldCapacity = this.times.length;
+        int capacity = oldCapacity * 2;
+        this.times = Arrays.copyOf(this.times, capacity);
+        this.priorities = Arrays.copyOf(this.priorities, capacity);
+        this.sequences = Arrays.copyOf(this.sequences, capacity);
+        this.simulatables = Arrays.copyOf(this.simulatables, capacity);
+        this.next = Arrays.copyOf(this.next, capacity);
+        
+        for (int n = oldCapacity; n < capacity - 1; n++) {
+            this.next[n] = n + 1;
+        }
+        
+        this.next[capacity - 1] = NIL;
+        this.freeHead = oldCapacity;
+    }
+    
+    private int merge(int a, int b) {
+        int head = NIL;
+        int tail = NIL;
+        int node;
+        
+        while (a != NIL && b != NIL) {
+            // take from the first list on ties to keep the sort stable
+            if (before(b, a)) {
+                node = b;
+                b = this.next[b];
+            }
+            else {
+                node = a;
+                a = this.next[a];
+            }
+            
+            if (tail == NIL)
+                head = node;
+            else
+                this.next[tail] = node;
+            
+            tail = node;
+        }
+        
+        int rest = (a != NIL) ? a : b;
+        
+        if (tail == NIL)
+            return rest;
+        
+        this.next[tail] = rest;
+        return head;
+    }
+}
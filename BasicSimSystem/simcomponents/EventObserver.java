@@ -32,4 +32,31 @@ package simcomponents;
  */
 public interface EventObserver {
     void notify(SimEvent simEvent);
+    
+    /**
+     * Provides the current simulation time, e.g., for models to timestamp jobs.
+     * 
+     * @return the current simulation time
+     */
+    double getSimTime();
+    
+    /**
+     * Schedules an event without the model creating a SimEvent.
+     * 
+     * @param simulatable the Simulatable object with the upcoming event
+     * @param delay time from now until the event occurs
+     * @param priority priority class of the event; lower values execute first
+     */
+    void schedule(Simulatable simulatable, double delay, int priority);
+    
+    /**
+     * Schedules an event of the default priority class without the model creating
+     * a SimEvent.
+     * 
+     * @param simulatable the Simulatable object with the upcoming event
+     * @param delay time from now until the event occurs
+     */
+    default void schedule(Simulatable simulatable, double delay) {
+        schedule(simulatable, delay, SimEvent.DEFAULT_PRIORITY);
+    }
 }
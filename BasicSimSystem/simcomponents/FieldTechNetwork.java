@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import randomgenr.RandomStream;
+import randomgenr.RandomStreamManager;
+
+/**
+ * The teleco field tech support queueing network: calls arrive at the call center
+ * and are routed through software tech, software manager, hardware tech, hardware
+ * manager and repair center stations before leaving through the transducer. Each
+ * instance is a complete, independent model bound to one simulation engine.
+ * 
+ * All variates are drawn from one random stream; each generator uses its own
+ * substream at a fixed index, so that the same stream reproduces the same draws
+ * per component across scenarios (common random numbers).
+ * 
+ * @author Gary R. Mayer
+ */
+public class FieldTechNetwork {
+    // the defined unit time here is an hour
+    private static final double JOB_ARRIVAL_RATE = 1.31;    // average jobs per hour
+    
+    private static final int CC_SERVERS = 3;
+    private static final int ST_SERVERS = 2;
+    private static final int SM_SERVERS = 1;
+    private static final int HT_SERVERS = 3;
+    private static final int HM_SERVERS = 1;
+    private static final int RC_SERVERS = 2;
+    
+    // average jobs per hour
+    private static final double CC_SERVICE_RATE = 1.31;
+    private static final double ST_SERVICE_RATE = 0.776;
+    private static final double SM_SERVICE_RATE = 0.228;
+    private static final double HT_SERVICE_RATE = 0.552;
+    private static final double HM_SERVICE_RATE = 0.326;
+    
+    private static final double RC_SERVICE_RATE = 9999;
+    private static final double RC_SERVICE_RATE_REPAIR = 9999;
+    private static final double RC_SERVICE_RATE_REPLACE = 9999;
+    
+    // substreams of the model's random stream; station i serves from 2 + 2i
+    //  and routes from 3 + 2i
+    private static final int ARRIVALS_SUBSTREAM = 0;
+    private static final int ARRIVAL_TIMES_SUBSTREAM = 1;
+    private static final int STATION_SUBSTREAM = 2;
+    
+    private final SimEngine engine;
+    private final Generator genr;
+    private final List<QueueStation> stations;
+    private final Transducer transd;
+    
+    /**
+     * Builds the network and registers its components with an engine, drawing
+     * from stream 0 of a master seed.
+     * 
+     * @param engine the simulation engine to run the model
+     * @param seed master pseudorandom number seed for the model's variate generators
+     */
+    public FieldTechNetwork(SimEngine engine, long seed) {
+        this(engine, new RandomStreamManager(seed).getStream(0));
+    }
+    
+    /**
+     * Builds the network and registers its components with an engine.
+     * 
+     * @param engine the simulation engine to run the model
+     * @param stream random stream from whose substreams the model's variate
+     * generators draw
+     */
+    public FieldTechNetwork(SimEngine engine, RandomStream stream) {
+        this.engine = engine;
+        
+        // instantiate simulation components
+        this.genr = new Generator("Field Tech Calls", JOB_ARRIVAL_RATE);
+        QueueStation CC_Station = new QueueStation("Call Center", CC_SERVERS, CC_SERVICE_RATE);
+        QueueStation ST_Station = new QueueStation("Software Tech", ST_SERVERS, ST_SERVICE_RATE);
+        QueueStation SM_Station = new QueueStation("Software Manager", SM_SERVERS, SM_SERVICE_RATE);
+        QueueStation HT_Station = new QueueStation("Hardware Tech", HT_SERVERS, HT_SERVICE_RATE);
+        QueueStation HM_Station = new QueueStation("Hardware Manager", HM_SERVERS, HM_SERVICE_RATE);
+        QueueStation RC_Station = new QueueStation("Repair Center", RC_SERVERS, RC_SERVICE_RATE);
+        
+        QueueStation RC_Station_REPAIR = new QueueStation("Repair Center REPAIR", RC_SERVERS, RC_SERVICE_RATE_REPAIR);
+        QueueStation RC_Station_REPLACE = new QueueStation("Repair Center REPLACE", RC_SERVERS, RC_SERVICE_RATE_REPLACE);
+        
+        this.transd = new Transducer();
+        
+        List<QueueStation> allStations = new ArrayList<>();
+        Collections.addAll(allStations, CC_Station, ST_Station, SM_Station, HT_Station,
+                HM_Station, RC_Station, RC_Station_REPAIR, RC_Station_REPLACE);
+        this.stations = Collections.unmodifiableList(allStations);
+        
+        this.genr.setRandomSources(stream.getSubstream(ARRIVALS_SUBSTREAM),
+                stream.getSubstream(ARRIVAL_TIMES_SUBSTREAM));
+        for (int i = 0; i < this.stations.size(); i++) {
+            QueueStation station = this.stations.get(i);
+            station.setServiceRandomSource(stream.getSubstream(STATION_SUBSTREAM + 2*i));
+            station.setRoutingRandomSource(stream.getSubstream(STATION_SUBSTREAM + 2*i + 1));
+        }
+        
+        // register the simulation engine to monitor component events and connect the components
+        this.genr.register(engine);
+        for (QueueStation station : this.stations) {
+            station.register(engine);
+        }
+        this.transd.register(engine);
+        
+        this.genr.setQueueStation(CC_Station);
+        
+        CC_Station.addOutputStation(ST_Station, 0.58);
+        CC_Station.addOutputStation(ST_Station, 0.27);
+        CC_Station.addOutputStation(this.transd, 0.15);
+        
+        ST_Station.addOutputStation(SM_Station, 0.30);
+        ST_Station.addOutputStation(HT_Station, 0.20);
+        ST_Station.addOutputStation(this.transd, 0.50);
+        
+        SM_Station.addOutputStation(HT_Station, 0.20);
+        SM_Station.addOutputStation(this.transd, 0.80);
+        
+        HT_Station.addOutputStation(HM_Station, 0.59);
+        HT_Station.addOutputStation(this.transd, 0.41);
+        
+        HM_Station.addOutputStation(ST_Station, 0.05);
+        HM_Station.addOutputStation(RC_Station, 0.31);
+        HM_Station.addOutputStation(this.transd, 0.64);
+        
+        RC_Station.addOutputStation(RC_Station_REPAIR, 0.75);
+        RC_Station.addOutputStation(RC_Station_REPLACE, 0.25);
+        
+        RC_Station_REPAIR.addOutputStation(this.transd, 1.0);
+        RC_Station_REPLACE.addOutputStation(this.transd, 1.0);
+        
+        // validate the routing before any run
+        for (QueueStation station : this.stations) {
+            station.compileRouting();
+        }
+    }
+    
+    public SimEngine getEngine() {
+        return this.engine;
+    }
+    
+    public Generator getGenerator() {
+        return this.genr;
+    }
+    
+    /**
+     * Provides the queue stations of the network, not including the transducer.
+     * 
+     * @return unmodifiable list of stations
+     */
+    public List<QueueStation> getStations() {
+        return this.stations;
+    }
+    
+    public Transducer getTransducer() {
+        return this.transd;
+    }
+    
+    /**
+     * Creates the arrivals and runs the engine until its end time.
+     */
+    public void run() {
+        this.genr.initialize();
+        this.engine.simulate();
+    }
+}
@@ -26,9 +26,9 @@
 package simcomponents;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import randomgenr.ExponentialGenr;
 import randomgenr.PoissonGenr;
+import randomgenr.UniformSource;
 
 /**
  * Produces the external events (job arrivals) into the system.
@@ -38,7 +38,9 @@ public class Generator implements Simulatable {
     private final String name;
     private final PoissonGenr arrivalGenr;
     private final ExponentialGenr arrivalTimeGenr;
-    private final LinkedList<SimEvent> arrivalEvents;
+    private final double rate;                         // average arrivals per unit time
+    private int pendingArrivals;                       // arrivals scheduled but not yet sent
+    private int arrivalsCreated;
     private final ArrayList<EventObserver> observers;
     private QueueStation queueStation;
     
@@ -52,11 +54,12 @@ public class Generator implements Simulatable {
      */
     public Generator(String name, double rate) {
         this.name = name;
+        this.rate = rate;
         this.arrivalGenr = new PoissonGenr();
         this.arrivalGenr.setEventRate(rate);
         this.arrivalTimeGenr = new ExponentialGenr();
         this.arrivalTimeGenr.setEventRate(rate);
-        this.arrivalEvents = new LinkedList<>();
+        this.pendingArrivals = 0;
         this.observers = new ArrayList<>();
         this.queueStation = null;
     }
@@ -67,15 +70,36 @@ public class Generator implements Simulatable {
     @Override
     public void execute() {
         // provide the queue station with its input
-        if (this.queueStation == null || this.arrivalEvents.isEmpty()) {
-            System.out.printf("  Generator: No jobs to send.%n");
+        if (this.queueStation == null || this.pendingArrivals == 0) {
+            if (SimTrace.isEnabled(TraceLevel.EVENT)) {
+                SimTrace.record(TraceEvent.NO_JOBS, this.name);
+            }
         } 
         else {
-            this.queueStation.addJob(new Job());
-            System.out.printf("  Generator: Sent job to " + this.queueStation.getName() + ".%n");
+            this.pendingArrivals--;
+            Job job = new Job();
+            job.setStartTime(currentTime());
+            this.queueStation.addJob(job);
+            if (SimTrace.isEnabled(TraceLevel.EVENT)) {
+                SimTrace.record(TraceEvent.JOB_SENT, this.name, this.queueStation.getName());
+            }
         }
     }
     
+    /**
+     * Provides the number of arrivals created by initialize, whose expected value
+     * is the event rate.
+     * 
+     * @return number of arrivals created
+     */
+    public int getArrivalsCreated() {
+        return this.arrivalsCreated;
+    }
+    
+    public double getEventRate() {
+        return this.rate;
+    }
+    
     @Override
     public String getName() {
         return this.name;
@@ -87,20 +111,20 @@ public class Generator implements Simulatable {
     public void initialize() {
         // calculate the number of arrivals in the unit time
         int numArrivalsWithinUnitTime = (int) (this.arrivalGenr.nextVariate());
+        this.arrivalsCreated += numArrivalsWithinUnitTime;
+        
+        // calculate the times of the arrivals from a block of interarrival times
+        double[] interarrivalTimes = new double[numArrivalsWithinUnitTime];
+        this.arrivalTimeGenr.fill(interarrivalTimes, 0, numArrivalsWithinUnitTime);
         
-        // calculate the times of the arrivals
         double currentTime = 0.0;
-        double arrivalTime;
         for (int a=0; a < numArrivalsWithinUnitTime; a++) {
-            arrivalTime = this.arrivalTimeGenr.nextVariate();
-            currentTime += arrivalTime;
-            SimEvent newEvent = new SimEvent(this, currentTime);
-            this.arrivalEvents.add(newEvent);
-            notifyObservers(newEvent);
+            currentTime += interarrivalTimes[a];
+            this.pendingArrivals++;
+            notifyObservers(currentTime);
         }
         
-        System.out.printf("Generator: %d job(s) created.\n",
-                numArrivalsWithinUnitTime);
+        SimTrace.record(TraceEvent.ARRIVALS_CREATED, "Generator", numArrivalsWithinUnitTime);
     }
 
     @Override
@@ -112,6 +136,18 @@ public class Generator implements Simulatable {
         this.queueStation = station;
     }
     
+    /**
+     * Sets the uniform sources of the arrival count and arrival time generators.
+     * Use separate, non-overlapping sources, e.g., substreams of a RandomStream.
+     * 
+     * @param arrivals source for the number of arrivals
+     * @param arrivalTimes source for the times between arrivals
+     */
+    public void setRandomSources(UniformSource arrivals, UniformSource arrivalTimes) {
+        this.arrivalGenr.setRandomSource(arrivals);
+        this.arrivalTimeGenr.setRandomSource(arrivalTimes);
+    }
+    
     public void setRandomSeed(long seed) {
         this.arrivalGenr.setSeed(seed);
         this.arrivalTimeGenr.setSeed(seed);
@@ -122,9 +158,13 @@ public class Generator implements Simulatable {
         this.observers.remove(observer);
     }
     
-    private void notifyObservers(SimEvent event) {
-        for (EventObserver observer : this.observers) {
-            observer.notify(event);
+    private double currentTime() {
+        return this.observers.isEmpty() ? 0.0 : this.observers.get(0).getSimTime();
+    }
+    
+    private void notifyObservers(double eventTime) {
+        for (int o = 0; o < this.observers.size(); o++) {
+            this.observers.get(o).schedule(this, eventTime);
         }
     }
     
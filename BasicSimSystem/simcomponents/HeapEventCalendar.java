@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.Arrays;
+
+/**
+ * Event calendar implemented as a 4-ary min-heap over parallel primitive arrays.
+ * Event times, priorities and sequence numbers are kept in primitive arrays
+ * alongside a Simulatable[], so scheduling and polling neither box the key nor
+ * allocate once the arrays have grown to the working size of the model.
+ * 
+ * @author Gary R. Mayer
+ */
+public class HeapEventCalendar implements EventCalendar {
+    private static final int ARITY = 4;
+    
+    private double[] times;
+    private int[] priorities;
+    private long[] sequences;
+    private Simulatable[] simulatables;
+    private int size;
+    
+    public HeapEventCalendar() {
+        this(16);
+    }
+    
+    /**
+     * Creates a calendar with room for the given number of pending events
+     * before it needs to grow.
+     * 
+     * @param initialCapacity initial number of event slots
+     */
+    public HeapEventCalendar(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be at least one.");
+        }
+        
+        this.times = new double[initialCapacity];
+        this.priorities = new int[initialCapacity];
+        this.sequences = new long[initialCapacity];
+        this.simulatables = new Simulatable[initialCapacity];
+        this.size = 0;
+    }
+    
+    @Override
+    public void add(double time, int priority, long sequence, Simulatable simulatable) {
+        if (this.size == this.times.length) {
+            grow();
+        }
+        
+        siftUp(this.size++, time, priority, sequence, simulatable);
+    }
+    
+    @Override
+    public void clear() {
+        Arrays.fill(this.simulatables, 0, this.size, null);
+        this.size = 0;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+    
+    @Override
+    public double peekTime() {
+        return (this.size == 0) ? Double.POSITIVE_INFINITY : this.times[0];
+    }
+    
+    @Override
+    public Simulatable poll() {
+        if (this.size == 0)
+            return null;
+        
+        Simulatable first = this.simulatables[0];
+        int last = --this.size;
+        Simulatable lastSimulatable = this.simulatables[last];
+        this.simulatables[last] = null;
+        
+        if (last > 0) {
+            siftDown(0, this.times[last], this.priorities[last], this.sequences[last],
+                    lastSimulatable);
+        }
+        
+        return first;
+    }
+    
+    @Override
+    public int size() {
+        return this.size;
+    }
+    
+    private void grow() {
+        int capacity = this.times.length * 2;
+        this.times = Arrays.copyOf(this.times, capacity);
+        this.priorities = Arrays.copyOf(this.priorities, capacity);
+        this.sequences = Arrays.copyOf(this.sequences, capacity);
+        this.simulatables = Arrays.copyOf(this.simulatables, capacity);
+    }
+    
+    /**
+     * Orders the entry in a heap slot against a key.
+     * 
+     * @return true if the entry at index must be executed before the key
+     */
+    private boolean before(int index, double time, int priority, long sequence) {
+        if (this.times[index] != time)
+            return this.times[index] < time;
+        
+        if (this.priorities[index] != priority)
+            return this.priorities[index] < priority;
+        
+        return this.sequences[index] < sequence;
+    }
+    
+    private void move(int from, int to) {
+        this.times[to] = this.times[from];
+        this.priorities[to] = this.priorities[from];
+        this.sequences[to] = this.sequences[from];
+        this.simulatables[to] = this.simulatables[from];
+    }
+    
+    private void set(int index, double time, int priority, long sequence,
+            Simulatable simulatable) {
+        this.times[index] = time;
+        this.priorities[index] = priority;
+        this.sequences[index] = sequence;
+        this.simulatables[index] = simulatable;
+    }
+    
+    private void siftDown(int index, double time, int priority, long sequence,
+            Simulatable simulatable) {
+        int child;
+        
+        // move the hole down until the entry is no later than all of its children
+        while ((child = ARITY*index + 1) < this.size) {
+            int minChild = child;
+            int end = Math.min(child + ARITY, this.size);
+            
+            for (int c = child + 1; c < end; c++) {
+                if (before(c, this.times[minChild], this.priorities[minChild],
+                        this.sequences[minChild]))
+                    minChild = c;
+            }
+            
+            if (!before(minChild, time, priority, sequence))
+                break;
+            
+            move(minChild, index);
+            index = minChild;
+        }
+        
+        set(index, time, priority, sequence, simulatable);
+    }
+    
+    private void siftUp(int index, double time, int priority, long sequence,
+            Simulatable simulatable) {
+        // move the hole up until the parent is no later than the entry
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            
+            if (before(parent, time, priority, sequence))
+                break;
+            
+            move(parent, index);
+            index = parent;
+        }
+        
+        set(index, time, priority, sequence, simulatable);
+    }
+}
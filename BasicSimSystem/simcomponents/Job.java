@@ -25,28 +25,165 @@
  */
 package simcomponents;
 
+import java.util.Arrays;
+
 /**
  * A generic task with the ability to record a start time and end time--such as
  * when the job enters a system, and when it leaves after the last service station.
+ * Also records when the job entered the queue of the station it is currently at.
+ * 
+ * Each station visit is kept in a compact log of primitive arrays: the station's
+ * name, and the times the job entered its queue, started service and departed.
+ * The log starts with room for four visits and doubles when full. Waiting and
+ * service times are also totaled across visits.
  * 
  * @author Gary R. Mayer
  */
 public class Job {
+    private static final int INITIAL_VISITS = 4;
+    private static final int TIMES_PER_VISIT = 3;     // entry, service start, departure
+    
     private double startTime;
     private double endTime;
+    private double stationEntryTime;
+    private double serviceStartTime;
+    private double totalWaitTime;
+    private double totalServiceTime;
+    
+    private String[] visitStations;
+    private double[] visitTimes;
+    private int visits;
     
     public Job() {
         this.startTime = Double.NEGATIVE_INFINITY;
         this.endTime = Double.NEGATIVE_INFINITY;
+        this.stationEntryTime = Double.NEGATIVE_INFINITY;
+        this.serviceStartTime = Double.NEGATIVE_INFINITY;
     }
     
     public double getEndTime() {
         return this.endTime;
     }
     
+    public double getServiceStartTime() {
+        return this.serviceStartTime;
+    }
+    
     public double getStartTime() {
         return this.startTime;
     }
+    
+    public double getStationEntryTime() {
+        return this.stationEntryTime;
+    }
+    
+    /**
+     * Provides the time spent in service, summed over all station visits.
+     * 
+     * @return total service time
+     */
+    public double getTotalServiceTime() {
+        return this.totalServiceTime;
+    }
+    
+    /**
+     * Provides the time spent waiting in queues, summed over all station visits.
+     * 
+     * @return total wait time
+     */
+    public double getTotalWaitTime() {
+        return this.totalWaitTime;
+    }
+    
+    public int getVisitCount() {
+        return this.visits;
+    }
+    
+    /**
+     * Provides the time the job departed a station it visited.
+     * 
+     * @param visit index of the visit, from 0 in order of visits
+     * @return the departure time, or NaN if the job has not yet departed
+     */
+    public double getVisitDepartureTime(int visit) {
+        return this.visitTimes[checkVisit(visit)*TIMES_PER_VISIT + 2];
+    }
+    
+    /**
+     * Provides the time the job entered the queue of a station it visited.
+     * 
+     * @param visit index of the visit, from 0 in order of visits
+     * @return the entry time
+     */
+    public double getVisitEntryTime(int visit) {
+        return this.visitTimes[checkVisit(visit)*TIMES_PER_VISIT];
+    }
+    
+    /**
+     * Provides the time the job started service at a station it visited.
+     * 
+     * @param visit index of the visit, from 0 in order of visits
+     * @return the service start time, or NaN if service has not yet started
+     */
+    public double getVisitServiceStartTime(int visit) {
+        return this.visitTimes[checkVisit(visit)*TIMES_PER_VISIT + 1];
+    }
+    
+    /**
+     * Provides the name of a station the job visited.
+     * 
+     * @param visit index of the visit, from 0 in order of visits
+     * @return the station name
+     */
+    public String getVisitStation(int visit) {
+        return this.visitStations[checkVisit(visit)];
+    }
+    
+    /**
+     * Records that the job departed the station of its current visit.
+     * 
+     * @param time the departure time
+     */
+    public void recordDeparture(double time) {
+        this.totalServiceTime += time - this.serviceStartTime;
+        this.visitTimes[(this.visits - 1)*TIMES_PER_VISIT + 2] = time;
+    }
+    
+    /**
+     * Records that the job started service at the station of its current visit.
+     * 
+     * @param time the service start time
+     */
+    public void recordServiceStart(double time) {
+        this.serviceStartTime = time;
+        this.totalWaitTime += time - this.stationEntryTime;
+        this.visitTimes[(this.visits - 1)*TIMES_PER_VISIT + 1] = time;
+    }
+    
+    /**
+     * Records that the job entered a station's queue, starting a new visit.
+     * 
+     * @param station name of the station
+     * @param time the entry time
+     */
+    public void recordStationEntry(String station, double time) {
+        if (this.visitStations == null) {
+            this.visitStations = new String[INITIAL_VISITS];
+            this.visitTimes = new double[INITIAL_VISITS * TIMES_PER_VISIT];
+        }
+        else if (this.visits == this.visitStations.length) {
+            this.visitStations = Arrays.copyOf(this.visitStations, 2*this.visits);
+            this.visitTimes = Arrays.copyOf(this.visitTimes, 2*this.visits*TIMES_PER_VISIT);
+        }
+        
+        int base = this.visits*TIMES_PER_VISIT;
+        this.visitStations[this.visits] = station;
+        this.visitTimes[base] = time;
+        this.visitTimes[base + 1] = Double.NaN;
+        this.visitTimes[base + 2] = Double.NaN;
+        this.visits++;
+        this.stationEntryTime = time;
+    }
 
     public void setEndTime(double end) {
         this.endTime = end;
@@ -55,5 +192,12 @@ public class Job {
     public void setStartTime(double start) {
         this.startTime = start;
     }
-
+    
+    private int checkVisit(int visit) {
+        if (visit < 0 || visit >= this.visits) {
+            throw new IndexOutOfBoundsException("Visit " + visit + " of " + this.visits);
+        }
+        
+        return visit;
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+/**
+ * FIFO queue of waiting jobs in a growable circular array. Enqueue and dequeue
+ * are O(1) and allocate only when the array doubles.
+ * 
+ * @author Gary R. Mayer
+ */
+final class JobQueue {
+    private static final int INITIAL_CAPACITY = 16;
+    
+    private Job[] jobs;
+    private int head;       // index of the oldest job
+    private int size;
+    
+    JobQueue() {
+        this.jobs = new Job[INITIAL_CAPACITY];
+    }
+    
+    /**
+     * Adds a job to the tail of the queue.
+     * 
+     * @param job the job to add
+     */
+    void add(Job job) {
+        if (this.size == this.jobs.length) {
+            grow();
+        }
+        
+        // capacity is a power of two, so masking wraps the index
+        this.jobs[(this.head + this.size) & (this.jobs.length - 1)] = job;
+        this.size++;
+    }
+    
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+    
+    /**
+     * Removes the job at the head of the queue.
+     * 
+     * @return the oldest job, or null if the queue is empty
+     */
+    Job poll() {
+        if (this.size == 0)
+            return null;
+        
+        Job job = this.jobs[this.head];
+        this.jobs[this.head] = null;
+        this.head = (this.head + 1) & (this.jobs.length - 1);
+        this.size--;
+        return job;
+    }
+    
+    int size() {
+        return this.size;
+    }
+    
+    private void grow() {
+        Job[] larger = new Job[this.jobs.length * 2];
+        int firstPart = this.jobs.length - this.head;
+        
+        // unwrap so the oldest job is at index 0
+        System.arraycopy(this.jobs, this.head, larger, 0, firstPart);
+        System.arraycopy(this.jobs, 0, larger, firstPart, this.head);
+        this.jobs = larger;
+        this.head = 0;
+    }
+}
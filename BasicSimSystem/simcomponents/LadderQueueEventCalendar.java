@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.Arrays;
+
+/**
+ * Event calendar implemented as a ladder queue (W. T. Tang, R. S. M. Goh and
+ * I. L.-J. Thng, 2005). New far-future events are appended unsorted to the top
+ * list. When the sorted bottom list runs dry, the top list is spread over the
+ * buckets of the first ladder rung, and any bucket holding more than a threshold
+ * of events is spread again over a finer rung. Only small buckets are ever sorted,
+ * which gives O(1) amortized scheduling and polling. Bucket widths are derived from
+ * the observed spread of the events being transferred, so no tuning is needed.
+ * 
+ * @author Gary R. Mayer
+ */
+public class LadderQueueEventCalendar implements EventCalendar {
+    private static final int THRESHOLD = 50;    // events per bucket before spawning a rung
+    private static final int MAX_RUNGS = 8;
+    private static final int NIL = EventNodePool.NIL;
+    
+    private final EventNodePool nodes;
+    private int size;
+    
+    // top: unsorted events at or after topStart
+    private int topHead;
+    private int topCount;
+    private double topMin;
+    private double topMax;
+    private double topStart;
+    
+    // ladder: rungs of unsorted buckets, each finer than the one before
+    private final int[][] rungBuckets;
+    private final double[] rungStart;
+    private final double[] rungWidth;
+    private final int[] rungBucketCount;
+    private final int[] rungCur;        // index of the next bucket to be dequeued
+    private final int[] rungCount;      // events held by the rung
+    private int numRungs;
+    
+    // bottom: sorted events earlier than anything on the ladder
+    private int bottomHead;
+    private int bottomCount;
+    
+    public LadderQueueEventCalendar() {
+        this.nodes = new EventNodePool(16);
+        this.rungBuckets = new int[MAX_RUNGS][];
+        this.rungStart = new double[MAX_RUNGS];
+        this.rungWidth = new double[MAX_RUNGS];
+        this.rungBucketCount = new int[MAX_RUNGS];
+        this.rungCur = new int[MAX_RUNGS];
+        this.rungCount = new int[MAX_RUNGS];
+        clear();
+    }
+    
+    @Override
+    public void add(double time, int priority, long sequence, Simulatable simulatable) {
+        int node = this.nodes.acquire(time, priority, sequence, simulatable);
+        this.size++;
+        
+        if (time >= this.topStart) {
+            addToTop(node, time);
+            return;
+        }
+        
+        for (int r = 0; r < this.numRungs; r++) {
+            if (addToRung(r, node, time))
+                return;
+        }
+        
+        addToBottom(node);
+        
+        // a long bottom list is costly to insert into; move it onto the ladder
+        if (this.bottomCount > THRESHOLD && this.numRungs < MAX_RUNGS) {
+            bottomToRung();
+        }
+    }
+    
+    @Override
+    public final void clear() {
+        this.nodes.clear();
+        this.size = 0;
+        this.topHead = NIL;
+        this.topCount = 0;
+        this.topMin = Double.POSITIVE_INFINITY;
+        this.topMax = Double.NEGATIVE_INFINITY;
+        this.topStart = Double.NEGATIVE_INFINITY;
+        this.numRungs = 0;
+        this.bottomHead = NIL;
+        this.bottomCount = 0;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+    
+    @Override
+    public double peekTime() {
+        if (this.size == 0)
+            return Double.POSITIVE_INFINITY;
+        
+        prepareBottom();
+        return this.nodes.times[this.bottomHead];
+    }
+    
+    @Override
+    public Simulatable poll() {
+        if (this.size == 0)
+            return null;
+        
+        prepareBottom();
+        
+        int node = this.bottomHead;
+        Simulatable simulatable = this.nodes.simulatables[node];
+        this.bottomHead = this.nodes.next[node];
+        this.bottomCount--;
+        this.nodes.release(node);
+        this.size--;
+        
+        return simulatable;
+    }
+    
+    @Override
+    public int size() {
+        return this.size;
+    }
+    
+    private void addToBottom(int node) {
+        this.bottomHead = this.nodes.insertSorted(this.bottomHead, node);
+        this.bottomCount++;
+    }
+    
+    /**
+     * Places an event on a rung if its time falls at or after the rung's current
+     * bucket. Times past the last bucket are kept in the last bucket, unless that
+     * bucket has already been dequeued.
+     * 
+     * @return true if the rung accepted the event
+     */
+    private boolean addToRung(int r, int node, double time) {
+        // clamp first, so a time past a consumed rung never reaches a dequeued bucket
+        int b = Math.min(bucketIndex(r, time), this.rungBucketCount[r] - 1);
+        
+        if (b < this.rungCur[r])
+            return false;
+        
+        this.nodes.next[node] = this.rungBuckets[r][b];
+        this.rungBuckets[r][b] = node;
+        this.rungCount[r]++;
+        
+        return true;
+    }
+    
+    private void addToTop(int node, double time) {
+        this.nodes.next[node] = this.topHead;
+        this.topHead = node;
+        this.topCount++;
+        this.topMin = Math.min(this.topMin, time);
+        this.topMax = Math.max(this.topMax, time);
+    }
+    
+    private void bottomToRung() {
+        double min = this.nodes.times[this.bottomHead];
+        double max = min;
+        
+        for (int n = this.bottomHead; n != NIL; n = this.nodes.next[n]) {
+            max = this.nodes.times[n];
+        }
+        
+        // simultaneous events cannot be spread over buckets
+        if (!(max > min))
+            return;
+        
+        int list = this.bottomHead;
+        int count = this.bottomCount;
+        this.bottomHead = NIL;
+        this.bottomCount = 0;
+        spawnRung(list, count, min, (max - min)/count, count + 1);
+    }
+    
+    private int bucketIndex(int r, double time) {
+        double offset = Math.floor((time - this.rungStart[r]) / this.rungWidth[r]);
+        
+        // saturate rather than overflow for times far past the rung
+        return (offset >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) offset;
+    }
+    
+    /**
+     * Makes sure the bottom list holds the earliest pending events, transferring
+     * events down from the top list and the ladder as needed. Assumes the calendar
+     * is not empty.
+     */
+    private void prepareBottom() {
+        while (this.bottomHead == NIL) {
+            if (this.numRungs == 0) {
+                topToRung();
+                continue;
+            }
+            
+            int r = this.numRungs - 1;
+            
+            if (this.rungCount[r] == 0) {
+                this.numRungs--;
+                continue;
+            }
+            
+            // take the next non-empty bucket off the lowest rung
+            int[] buckets = this.rungBuckets[r];
+            int b = this.rungCur[r];
+            
+            while (buckets[b] == NIL) {
+                b++;
+            }
+            
+            int list = buckets[b];
+            int count = this.nodes.length(list);
+            buckets[b] = NIL;
+            this.rungCur[r] = b + 1;
+            this.rungCount[r] -= count;
+            
+            double bucketStart = this.rungStart[r] + b*this.rungWidth[r];
+            double width = this.rungWidth[r] / THRESHOLD;
+            
+            if (count > THRESHOLD && this.numRungs < MAX_RUNGS && width > 0.0
+                    && !isSimultaneous(list)) {
+                spawnRung(list, count, bucketStart, width, THRESHOLD);
+            }
+            else {
+                this.bottomHead = this.nodes.sort(list);
+                this.bottomCount = count;
+            }
+        }
+    }
+    
+    private boolean isSimultaneous(int list) {
+        double time = this.nodes.times[list];
+        
+        for (int n = this.nodes.next[list]; n != NIL; n = this.nodes.next[n]) {
+            if (this.nodes.times[n] != time)
+                return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Adds a rung below the current lowest one and spreads a list of events over
+     * it. Events that round to before the rung's first bucket belong in the bottom.
+     */
+    private void spawnRung(int list, int count, double start, double width, int numBuckets) {
+        int r = this.numRungs++;
+        
+        if (this.rungBuckets[r] == null || this.rungBuckets[r].length < numBuckets) {
+            this.rungBuckets[r] = new int[Math.max(numBuckets, 2*THRESHOLD)];
+        }
+        
+        Arrays.fill(this.rungBuckets[r], 0, numBuckets, NIL);
+        this.rungStart[r] = start;
+        this.rungWidth[r] = width;
+        this.rungBucketCount[r] = numBuckets;
+        this.rungCur[r] = 0;
+        this.rungCount[r] = 0;
+        
+        while (list != NIL) {
+            int following = this.nodes.next[list];
+            
+            if (!addToRung(r, list, this.nodes.times[list])) {
+                addToBottom(list);
+            }
+            
+            list = following;
+        }
+    }
+    
+    private void topToRung() {
+        int list = this.topHead;
+        int count = this.topCount;
+        double min = this.topMin;
+        double max = this.topMax;
+        
+        // everything after the current top events goes to a new top
+        this.topHead = NIL;
+        this.topCount = 0;
+        this.topMin = Double.POSITIVE_INFINITY;
+        this.topMax = Double.NEGATIVE_INFINITY;
+        this.topStart = Math.nextUp(max);
+        
+        double width = (max - min)/count;
+        
+        if (width > 0.0) {
+            spawnRung(list, count, min, width, count + 1);
+        }
+        else {
+            this.bottomHead = this.nodes.sort(list);
+            this.bottomCount = count;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Event calendar backed by a java.util.PriorityQueue of SimEvent objects. This is
+ * the engine's original event list, kept as a reference point for comparing the
+ * other calendar implementations. Polled SimEvent instances are kept on a free
+ * list and reused for later events, as the other calendars reuse their nodes, so
+ * in steady state no SimEvent is allocated per event.
+ * 
+ * @author Gary R. Mayer
+ */
+public class PriorityQueueEventCalendar implements EventCalendar {
+    private final PriorityQueue<SimEvent> eventQueue;
+    private SimEvent[] freeEvents;      // stack of recycled events
+    private int numFree;
+    
+    public PriorityQueueEventCalendar() {
+        this.eventQueue = new PriorityQueue<>(100);
+        this.freeEvents = new SimEvent[64];
+        this.numFree = 0;
+    }
+    
+    @Override
+    public void add(double time, int priority, long sequence, Simulatable simulatable) {
+        SimEvent event;
+        
+        if (this.numFree == 0) {
+            event = new SimEvent(simulatable, time, priority);
+            event.setSequence(sequence);
+        }
+        else {
+            event = this.freeEvents[--this.numFree];
+            this.freeEvents[this.numFree] = null;
+            event.reset(simulatable, time, priority, sequence);
+        }
+        
+        this.eventQueue.add(event);
+    }
+    
+    @Override
+    public void clear() {
+        for (SimEvent event : this.eventQueue) {
+            release(event);
+        }
+        
+        this.eventQueue.clear();
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return this.eventQueue.isEmpty();
+    }
+    
+    @Override
+    public double peekTime() {
+        SimEvent first = this.eventQueue.peek();
+        return (first == null) ? Double.POSITIVE_INFINITY : first.getEventTime();
+    }
+    
+    @Override
+    public Simulatable poll() {
+        SimEvent first = this.eventQueue.poll();
+        
+        if (first == null)
+            return null;
+        
+        Simulatable simulatable = first.getSimulatable();
+        release(first);
+        
+        return simulatable;
+    }
+    
+    @Override
+    public int size() {
+        return this.eventQueue.size();
+    }
+    
+    private void release(SimEvent event) {
+        event.reset(null, 0.0, SimEvent.DEFAULT_PRIORITY, 0L);
+        
+        if (this.numFree == this.freeEvents.length) {
+            this.freeEvents = Arrays.copyOf(this.freeEvents, 2*this.numFree);
+        }
+        
+        this.freeEvents[this.numFree++] = event;
+    }
+}
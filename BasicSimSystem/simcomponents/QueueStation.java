@@ -26,28 +26,47 @@
 package simcomponents;
 
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Random;
-import java.util.TreeSet;
 import randomgenr.ExponentialGenr;
+import randomgenr.RandomVariateGenr;
 import randomgenr.UniformGenr;
+import randomgenr.UniformSource;
+import simstats.BatchMeansEstimator;
+import simstats.QuantileSketch;
+import simstats.RunningStatistics;
+import simstats.TimeWeightedStatistics;
 
 /**
- *
+ * A station of one or more servers fed by a FIFO queue. The time-weighted queue
+ * length and number of busy servers are accumulated in O(1) whenever a job is
+ * enqueued, starts service or completes; getStatistics gives a snapshot.
+ * 
+ * The station itself is not scheduled with the engine: each server has its own
+ * Simulatable handle, and a completion finishes exactly that server's job. The
+ * station is registered with the engine only to schedule those handles and read
+ * the clock.
+ * 
  * @author Gary R. Mayer
  */
-public class QueueStation implements Simulatable {
-    private static UniformGenr outSelectGenr = new UniformGenr();   // pseudorandom uniform variate generator
-    
+public class QueueStation {
     private final String name;
-    private final LinkedList<Job> jobQueue;            // linked list implements a FIFO queue
+    private final JobQueue jobQueue;                   // circular array implements a FIFO queue
     private final int numServers;                      // number of servers
-    private final ArrayList<Job> activeServers;        // active job servers for this station
-    private final TreeSet<OutputPair> outputStations;  // set of output stations
+    private final ServerPool servers;                  // job servers for this station
+    private final ServerSlot[] slotHandles;            // completion events, one per server
+    private final ArrayList<OutputPair> outputStations; // routes as added
+    private RoutingTable routingTable;                 // compiled from the routes
     private final ArrayList<EventObserver> observers;
 
-    private final ExponentialGenr serviceTimeGenr;
+    private RandomVariateGenr serviceTimeGenr;
+    private final UniformGenr routingGenr;             // selects the output station
+    private long jobsCompleted;
+    private final RunningStatistics waitTime;          // time jobs spend queued
+    private final RunningStatistics serviceTime;       // service times drawn
+    private final QuantileSketch waitTimeSketch;       // wait time percentiles
+    private BatchMeansEstimator queueLengthBatchMeans; // queue length seen by arrivals
+    private final TimeWeightedStatistics queueLength;  // jobs waiting, over time
+    private final TimeWeightedStatistics busyServers;  // servers busy, over time
     
     private final double RC_REPAIR_TIME_AVG = 3.722;
     private final double RC_INSPECT_TIME_AVG = 0.5;
@@ -58,14 +77,38 @@ public class QueueStation implements Simulatable {
     private double RC_Repair_Time = 0;
     
     protected QueueStation(String name, int numServers, double serviceRate) {
+        this(name, numServers, exponentialGenr(serviceRate));
+    }
+    
+    /**
+     * Constructor for a station whose service times follow any distribution.
+     * 
+     * @param name name of the station
+     * @param numServers number of servers
+     * @param serviceTimeGenr generator of the service times; owned by the station
+     */
+    protected QueueStation(String name, int numServers, RandomVariateGenr serviceTimeGenr) {
+        if (serviceTimeGenr == null) {
+            throw new IllegalArgumentException("Service time generator must not be null.");
+        }
+        
         this.name = name;
-        this.jobQueue = new LinkedList<>();
+        this.jobQueue = new JobQueue();
         this.numServers = numServers;
-        this.activeServers = new ArrayList<>();
-        this.outputStations = new TreeSet<>();
+        this.servers = new ServerPool(numServers);
+        this.slotHandles = new ServerSlot[this.servers.size()];
+        for (int i = 0; i < this.slotHandles.length; i++) {
+            this.slotHandles[i] = new ServerSlot(i);
+        }
+        this.outputStations = new ArrayList<>();
         this.observers = new ArrayList<>(2);
-        this.serviceTimeGenr = new ExponentialGenr();
-        this.serviceTimeGenr.setEventRate(serviceRate);
+        this.serviceTimeGenr = serviceTimeGenr;
+        this.routingGenr = new UniformGenr();
+        this.waitTime = new RunningStatistics();
+        this.serviceTime = new RunningStatistics();
+        this.waitTimeSketch = new QuantileSketch();
+        this.queueLength = new TimeWeightedStatistics();
+        this.busyServers = new TimeWeightedStatistics();
     }
    
 
@@ -76,110 +119,291 @@ public class QueueStation implements Simulatable {
      * @param job the job to add to the queue station system
      */
     public void addJob(Job job) {
+        job.recordStationEntry(this.name, currentTime());
+        
+        if (this.queueLengthBatchMeans != null) {
+            this.queueLengthBatchMeans.add(this.jobQueue.size());
+        }
+        
         this.jobQueue.add(job);
         
         // if a server is not used, start job immediately
-        if (this.activeServers.size() < this.numServers) {
+        if (this.servers.hasIdleServer()) {
             startNextJob();
         }
+        recordState();
         
         // Repair Center stock update
         if ("Repair Center".equals(this.getName())) {
             this.RC_Stock = this.RC_Stock + 1;
             this.RC_Repair_Time = this.RC_Repair_Time + RC_INSPECT_TIME_AVG;
-            System.out.println("  " + this.name + " RC Time: " + this.RC_Repair_Time);
-            System.out.println("  " + this.name + " Stock used: " + this.RC_Stock);
+            if (SimTrace.isEnabled(TraceLevel.EVENT)) {
+                SimTrace.record(TraceEvent.RC_TIME, this.name, this.RC_Repair_Time);
+                SimTrace.record(TraceEvent.RC_STOCK_USED, this.name, this.RC_Stock);
+            }
         }
         
         // Repair Center replacements needed
         if ("Repair Center REPLACE".equals(this.getName())) {
             this.RC_Replacements = this.RC_Replacements + 1;
-            System.out.println("  " + this.name + " Replacements needed: " + this.RC_Replacements);
+            if (SimTrace.isEnabled(TraceLevel.EVENT)) {
+                SimTrace.record(TraceEvent.RC_REPLACEMENTS, this.name, this.RC_Replacements);
+            }
         }
         
         if ("Repair Center REPAIR".equals(this.getName())) {
             this.RC_Repairs = this.RC_Repairs + 1;
             this.RC_Repair_Time = this.RC_Repair_Time + RC_REPAIR_TIME_AVG;
-            System.out.println("  " + this.name + " RC Time: " + this.RC_Repair_Time);
-            System.out.println("  " + this.name + " Repaired units: " + this.RC_Repairs);
+            if (SimTrace.isEnabled(TraceLevel.EVENT)) {
+                SimTrace.record(TraceEvent.RC_TIME, this.name, this.RC_Repair_Time);
+                SimTrace.record(TraceEvent.RC_REPAIRS, this.name, this.RC_Repairs);
+            }
         }
     }
     
     /**
      * Adds a QueueStation as output from this station's completed execution
-     * with specified probability.
+     * with specified probability. Routes to the same station are merged when the
+     * routing table is compiled.
      * 
      * @param station queue station to receive output of execution
      * @param probability probability that this station gets the output
      */
     public void addOutputStation(QueueStation station, double probability) {
         this.outputStations.add(new OutputPair(station, probability));
+        this.routingTable = null;
     }
     
-    @Override
-    public void execute() {
-        // remove job from server; as there is no distinction between jobs in
-        //  this example, just take the first
-        Job finishedJob = this.activeServers.remove(0);
+    /**
+     * Validates the output stations and compiles them into an immutable routing
+     * table, merging routes to the same station. Called by the model before a
+     * run so that routing errors surface at build time; otherwise it is called on
+     * the first routing decision.
+     * 
+     * @throws IllegalStateException if the output probabilities are invalid or do
+     * not sum to unity
+     */
+    public void compileRouting() {
+        if (this.outputStations.isEmpty()) {
+            this.routingTable = null;
+            return;
+        }
         
-        // send job to selected output station
-        QueueStation outputStation = selectOutputStation();
-        outputStation.addJob(finishedJob);
-        System.out.println("  " + this.name + " sending job to " + outputStation.getName());
-
-        // get next job from queue
-        startNextJob();
+        int n = this.outputStations.size();
+        QueueStation[] destinations = new QueueStation[n];
+        double[] probabilities = new double[n];
+        
+        for (int i = 0; i < n; i++) {
+            destinations[i] = this.outputStations.get(i).getStation();
+            probabilities[i] = this.outputStations.get(i).getProbability();
+        }
+        
+        this.routingTable = new RoutingTable(this.name, destinations, probabilities, n);
+    }
+    
+    /**
+     * Provides the simulation time of the engine this station is registered with.
+     * 
+     * @return the current simulation time, or 0.0 if the station is not registered
+     */
+    protected double currentTime() {
+        return this.observers.isEmpty() ? 0.0 : this.observers.get(0).getSimTime();
     }
     
-    @Override
     public String getName() {
         return this.name;
     }
     
+    /**
+     * Provides the number of jobs this station has finished serving.
+     * 
+     * @return completed job count
+     */
+    public long getJobsCompleted() {
+        return this.jobsCompleted;
+    }
+    
+    /**
+     * Provides statistics on the time jobs waited in this station's queue before
+     * service started.
+     * 
+     * @return wait time statistics
+     */
+    public RunningStatistics getWaitTime() {
+        return this.waitTime;
+    }
+    
+    /**
+     * Provides the quantile sketch of the time jobs waited in this station's
+     * queue, for wait time percentiles.
+     * 
+     * @return wait time sketch
+     */
+    public QuantileSketch getWaitTimeSketch() {
+        return this.waitTimeSketch;
+    }
+    
+    /**
+     * Provides the batch-means estimator fed with the queue length seen by each
+     * arriving job.
+     * 
+     * @return the estimator, or null if not enabled
+     */
+    public BatchMeansEstimator getQueueLengthBatchMeans() {
+        return this.queueLengthBatchMeans;
+    }
+    
+    /**
+     * Provides a snapshot of this station's time-weighted statistics from the
+     * start of the run to the current simulation time.
+     * 
+     * @return the statistics snapshot
+     */
+    public StationStatistics getStatistics() {
+        double now = currentTime();
+        
+        return new StationStatistics(this.name, now - this.queueLength.getStartTime(),
+                this.servers.size(), this.jobsCompleted, this.queueLength.getAverage(now),
+                (int) this.queueLength.getMax(), this.busyServers.getAverage(now));
+    }
+    
+    /**
+     * Provides the compiled routing table.
+     * 
+     * @return the routing table, or null if not compiled or there are no outputs
+     */
+    public RoutingTable getRoutingTable() {
+        return this.routingTable;
+    }
+    
+    /**
+     * Provides statistics on the service times drawn for jobs this station started.
+     * 
+     * @return service time statistics
+     */
+    public RunningStatistics getServiceTime() {
+        return this.serviceTime;
+    }
+    
+    public RandomVariateGenr getServiceTimeGenr() {
+        return this.serviceTimeGenr;
+    }
+    
     public int getRC_Stock() {
         return this.RC_Stock;
     }
     
-    @Override
+    /**
+     * Registers the engine that schedules this station's service completions.
+     * 
+     * @param observer the simulation engine
+     */
     public void register(EventObserver observer) {
         this.observers.add(observer);
     }
     
+    /**
+     * Sets the batch-means estimator fed with the queue length seen by each
+     * arriving job. Set it before a single long run starts.
+     * 
+     * @param estimator the estimator, or null to disable
+     */
+    public void setQueueLengthBatchMeans(BatchMeansEstimator estimator) {
+        this.queueLengthBatchMeans = estimator;
+    }
+    
+    /**
+     * Seeds this station's service time and routing generators. The routing
+     * generator is seeded with seed + 1 so it does not replay the service draws.
+     * 
+     * @param seed pseudorandom number seed value
+     */
     public void setRandomSeed(long seed) {
-        QueueStation.outSelectGenr.setSeed(seed);
         this.serviceTimeGenr.setSeed(seed);
+        this.routingGenr.setSeed(seed + 1);
     }
-
-    @Override
+    
+    /**
+     * Sets the uniform source of this station's routing draws.
+     * 
+     * @param source the uniform source
+     */
+    public void setRoutingRandomSource(UniformSource source) {
+        this.routingGenr.setRandomSource(source);
+    }
+    
+    /**
+     * Replaces the generator of this station's service times, e.g., to model
+     * non-exponential service. Set it before the run starts.
+     * 
+     * @param serviceTimeGenr generator of the service times; owned by the station
+     */
+    public void setServiceTimeGenr(RandomVariateGenr serviceTimeGenr) {
+        if (serviceTimeGenr == null) {
+            throw new IllegalArgumentException("Service time generator must not be null.");
+        }
+        
+        this.serviceTimeGenr = serviceTimeGenr;
+    }
+    
+    /**
+     * Sets the uniform source of this station's service time generator.
+     * 
+     * @param source the uniform source
+     */
+    public void setServiceRandomSource(UniformSource source) {
+        this.serviceTimeGenr.setRandomSource(source);
+    }
+    
     public void unregister(EventObserver observer) {
         this.observers.remove(observer);
     }
     
+    /**
+     * Finishes the job of a server whose service time has elapsed and starts the
+     * next queued job.
+     * 
+     * @param slot the server's slot
+     */
+    private void completeService(int slot) {
+        Job finishedJob = this.servers.finish(slot);
+        finishedJob.recordDeparture(currentTime());
+        this.jobsCompleted++;
+        
+        // send job to selected output station
+        QueueStation outputStation = selectOutputStation();
+        outputStation.addJob(finishedJob);
+        if (SimTrace.isEnabled(TraceLevel.EVENT)) {
+            SimTrace.record(TraceEvent.JOB_ROUTED, this.name, outputStation.getName());
+        }
+
+        // get next job from queue
+        startNextJob();
+        recordState();
+    }
+    
+    // called once the station settles after a change, so a job that starts at
+    // once never counts as queued
+    private void recordState() {
+        double now = currentTime();
+        this.queueLength.update(now, this.jobQueue.size());
+        this.busyServers.update(now, this.servers.getBusyCount());
+    }
+    
+    private static ExponentialGenr exponentialGenr(double serviceRate) {
+        ExponentialGenr genr = new ExponentialGenr();
+        genr.setEventRate(serviceRate);
+        return genr;
+    }
+    
     private QueueStation selectOutputStation() {
         if (this.outputStations.isEmpty())
             return null;
         
-        double outputSelect = outSelectGenr.nextVariate();
-        double currentSelect = 0.0;
-        OutputPair outPair;
-        QueueStation outputStation = null;
-        Iterator<OutputPair> osIter = this.outputStations.descendingIterator();
-
-        while (outputSelect > currentSelect) {
-            // update outputStation to next station in list
-            if (!osIter.hasNext()) {
-                throw new IllegalStateException("Invalid output station. Unable to send output."
-                        + " Ensure output probabilities sum to unity.");
-            }
-
-            outPair = osIter.next();
-            outputStation = outPair.getStation();
-
-            // add next item probability to currentSelect
-            currentSelect += outPair.getProbability();
-        }
+        if (this.routingTable == null)
+            compileRouting();
         
-        return outputStation;
+        return this.routingTable.select(this.routingGenr.nextVariate());
     }
     
     private void startNextJob() {
@@ -187,26 +411,30 @@ public class QueueStation implements Simulatable {
         Job nextJob = this.jobQueue.poll();
         
         if (nextJob != null) {
+            nextJob.recordServiceStart(currentTime());
+            double wait = nextJob.getServiceStartTime() - nextJob.getStationEntryTime();
+            this.waitTime.add(wait);
+            this.waitTimeSketch.add(wait);
+            
             // determine the delta time from now to complete the job 
             // and notify observers of the pending simulation event
             double serviceTime = this.serviceTimeGenr.nextVariate();
+            this.serviceTime.add(serviceTime);
             
-            notifyObservers(serviceTime);
-
-            // process the job until event completion time
-            this.activeServers.add(nextJob);
+            // process the job until event completion time on its server
+            int slot = this.servers.start(nextJob);
+            notifyObservers(this.slotHandles[slot], serviceTime);
             
-            System.out.printf("  " + this.name + ": Started job. Done in %.3f. " 
-                + this.activeServers.size() + " of " + this.numServers
-                + " server(s) busy.%n", serviceTime);
+            if (SimTrace.isEnabled(TraceLevel.EVENT)) {
+                SimTrace.record(TraceEvent.JOB_STARTED, this.name, null, serviceTime, 0.0,
+                        this.servers.getBusyCount(), this.numServers);
+            }
         }
     }
     
-    private void notifyObservers(double eventTime) {
-        SimEvent simEvent = new SimEvent(this, eventTime);
-        
-        for (EventObserver observer : this.observers) {
-            observer.notify(simEvent);
+    private void notifyObservers(Simulatable simulatable, double eventTime) {
+        for (int o = 0; o < this.observers.size(); o++) {
+            this.observers.get(o).schedule(simulatable, eventTime);
         }
     }
     
@@ -214,25 +442,16 @@ public class QueueStation implements Simulatable {
      * Internal data class to capture probability when output may nondeterministically
      * go to a different next place.
      */
-    private class OutputPair implements Comparable<OutputPair> {
-        private QueueStation station;
-        private Double probability;
+    private class OutputPair {
+        private final QueueStation station;
+        private final double probability;
         
         public OutputPair(QueueStation station, double probability) {
             this.station = station;
             this.probability = probability;
         }
-
-        @Override
-        public int compareTo(OutputPair op) {
-            if (this.probability >= op.getProbability())
-                return 1;
-            
-            else
-                return -1;
-        }
         
-        public Double getProbability() {
+        public double getProbability() {
             return this.probability;
         }
         
@@ -241,4 +460,35 @@ public class QueueStation implements Simulatable {
         }
             
     }
+    
+    /**
+     * Handle scheduled with the engine for the completion of one server's job, so
+     * that the completion finishes exactly that job in O(1).
+     */
+    private class ServerSlot implements Simulatable {
+        private final int slot;
+        
+        ServerSlot(int slot) {
+            this.slot = slot;
+        }
+        
+        @Override
+        public void execute() {
+            completeService(this.slot);
+        }
+        
+        @Override
+        public String getName() {
+            return QueueStation.this.name;
+        }
+        
+        // the station's observers schedule the handle
+        @Override
+        public void register(EventObserver observer) {
+        }
+        
+        @Override
+        public void unregister(EventObserver observer) {
+        }
+    }
 }
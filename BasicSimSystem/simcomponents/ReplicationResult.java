@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import simstats.MserWarmupDetector;
+import simstats.QuantileSketch;
+import simstats.RunningStatistics;
+
+/**
+ * Statistics collected from one replication of a field tech network run.
+ * 
+ * @author Gary R. Mayer
+ */
+public class ReplicationResult {
+    private final int replication;
+    private final long seed;
+    private final double lastEventTime;
+    private final RunningStatistics timeInSystem;
+    private final QuantileSketch timeInSystemSketch;
+    private final double truncatedMeanTimeInSystem;
+    private final long warmupJobs;
+    private final Map<String, Long> stationCompletions;
+    private final Map<String, RunningStatistics> stationWaits;
+    private final Map<String, QuantileSketch> stationWaitSketches;
+    private final Map<String, StationStatistics> stationStatistics;
+    private final int arrivals;
+    private final double expectedArrivals;
+    private final double standardizedServiceTime;
+    
+    /**
+     * Captures the results of a network that has finished running.
+     * 
+     * @param replication index of the replication
+     * @param seed master pseudorandom number seed of the replication's stream
+     * @param network the finished model
+     */
+    public ReplicationResult(int replication, long seed, FieldTechNetwork network) {
+        this.replication = replication;
+        this.seed = seed;
+        this.lastEventTime = network.getEngine().getSimTime();
+        this.timeInSystem = network.getTransducer().getTimeInSystem();
+        this.timeInSystemSketch = network.getTransducer().getTimeInSystemSketch();
+        
+        MserWarmupDetector warmup = network.getTransducer().getWarmupDetector();
+        this.truncatedMeanTimeInSystem = (warmup == null) ? Double.NaN : warmup.getTruncatedMean();
+        this.warmupJobs = (warmup == null) ? 0L : warmup.getTruncationPoint();
+        
+        Map<String, Long> completions = new LinkedHashMap<>();
+        Map<String, RunningStatistics> waits = new LinkedHashMap<>();
+        Map<String, QuantileSketch> waitSketches = new LinkedHashMap<>();
+        Map<String, StationStatistics> statistics = new LinkedHashMap<>();
+        for (QueueStation station : network.getStations()) {
+            completions.put(station.getName(), station.getJobsCompleted());
+            waits.put(station.getName(), station.getWaitTime());
+            waitSketches.put(station.getName(), station.getWaitTimeSketch());
+            statistics.put(station.getName(), station.getStatistics());
+        }
+        this.stationCompletions = Collections.unmodifiableMap(completions);
+        
+        // controls with known means for variance reduction
+        this.arrivals = network.getGenerator().getArrivalsCreated();
+        this.expectedArrivals = network.getGenerator().getEventRate();
+        this.standardizedServiceTime = standardizedServiceTime(network);
+        this.stationWaits = Collections.unmodifiableMap(waits);
+        this.stationWaitSketches = Collections.unmodifiableMap(waitSketches);
+        this.stationStatistics = Collections.unmodifiableMap(statistics);
+    }
+    
+    public int getArrivals() {
+        return this.arrivals;
+    }
+    
+    /**
+     * Provides the expected number of arrivals, the known mean of getArrivals.
+     * 
+     * @return expected number of arrivals
+     */
+    public double getExpectedArrivals() {
+        return this.expectedArrivals;
+    }
+    
+    public long getJobsCompleted() {
+        return this.timeInSystem.getCount();
+    }
+    
+    public double getLastEventTime() {
+        return this.lastEventTime;
+    }
+    
+    public int getReplication() {
+        return this.replication;
+    }
+    
+    public long getSeed() {
+        return this.seed;
+    }
+    
+    /**
+     * Provides the number of jobs each station finished serving, keyed by station
+     * name in network order.
+     * 
+     * @return unmodifiable map of station completions
+     */
+    public Map<String, Long> getStationCompletions() {
+        return this.stationCompletions;
+    }
+    
+    /**
+     * Provides the time-weighted queue length and utilization of each station at
+     * the end of the run, keyed by station name in network order.
+     * 
+     * @return unmodifiable map of station statistics snapshots
+     */
+    public Map<String, StationStatistics> getStationStatistics() {
+        return this.stationStatistics;
+    }
+    
+    /**
+     * Provides the queue wait statistics of each station, keyed by station name in
+     * network order.
+     * 
+     * @return unmodifiable map of station wait statistics
+     */
+    public Map<String, RunningStatistics> getStationWaits() {
+        return this.stationWaits;
+    }
+    
+    /**
+     * Provides the quantile sketch of each station's queue waits, keyed by station
+     * name in network order.
+     * 
+     * @return unmodifiable map of station wait sketches
+     */
+    public Map<String, QuantileSketch> getStationWaitSketches() {
+        return this.stationWaitSketches;
+    }
+    
+    /**
+     * Provides the mean of all service times drawn in the replication, each
+     * divided by the known mean of its station's service time distribution. Its
+     * expected value is one, so it can serve as a control variate.
+     * 
+     * @return the standardized mean service time, or NaN if no service time with
+     * a known mean was drawn
+     */
+    public double getStandardizedServiceTime() {
+        return this.standardizedServiceTime;
+    }
+    
+    /**
+     * Provides the mean time in system after MSER-5 warm-up deletion.
+     * 
+     * @return the truncated mean, or NaN if warm-up detection was not enabled or
+     * too few jobs completed
+     */
+    public double getTruncatedMeanTimeInSystem() {
+        return this.truncatedMeanTimeInSystem;
+    }
+    
+    /**
+     * Provides the number of leading completed jobs deleted as warm-up.
+     * 
+     * @return warm-up length in jobs; zero if warm-up detection was not enabled
+     */
+    public long getWarmupJobs() {
+        return this.warmupJobs;
+    }
+    
+    public RunningStatistics getTimeInSystem() {
+        return this.timeInSystem;
+    }
+    
+    public QuantileSketch getTimeInSystemSketch() {
+        return this.timeInSystemSketch;
+    }
+    
+    private static double standardizedServiceTime(FieldTechNetwork network) {
+        double sum = 0.0;
+        long count = 0L;
+        
+        for (QueueStation station : network.getStations()) {
+            double mean = station.getServiceTimeGenr().getMean();
+            RunningStatistics served = station.getServiceTime();
+            
+            if (mean > 0.0 && !Double.isInfinite(mean) && served.getCount() > 0) {
+                sum += served.getCount() * served.getMean() / mean;
+                count += served.getCount();
+            }
+        }
+        
+        return (count == 0) ? Double.NaN : sum / count;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import randomgenr.RandomStream;
+import randomgenr.RandomStreamManager;
+
+/**
+ * Runs independent replications of the field tech network in parallel. Every
+ * replication gets its own engine and model, and replication r draws from stream r
+ * of a stream manager for the master seed, so a set of replications is
+ * reproducible regardless of how they are scheduled across threads, and runners
+ * for different scenarios with the same master seed use common random numbers.
+ * In antithetic mode replications 2j and 2j+1 both use stream j, the second
+ * with antithetic uniforms, and the summary also reports the pair averages.
+ * 
+ * Trace output of concurrent replications is interleaved; set the trace level to
+ * OFF or SUMMARY for batch runs.
+ * 
+ * @author Gary R. Mayer
+ */
+public class ReplicationRunner {
+    private final RandomStreamManager streams;
+    private final double endTime;
+    private final int parallelism;
+    private boolean warmupDetection;
+    private boolean antithetic;
+    
+    /**
+     * Creates a runner using one thread per available processor.
+     * 
+     * @param masterSeed seed from which all replication streams are derived
+     * @param endTime simulation end time of each replication
+     */
+    public ReplicationRunner(long masterSeed, double endTime) {
+        this(masterSeed, endTime, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Creates a runner.
+     * 
+     * @param masterSeed seed from which all replication streams are derived
+     * @param endTime simulation end time of each replication
+     * @param parallelism number of replications to run concurrently
+     */
+    public ReplicationRunner(long masterSeed, double endTime, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least one.");
+        }
+        
+        this.streams = new RandomStreamManager(masterSeed);
+        this.endTime = endTime;
+        this.parallelism = parallelism;
+        this.warmupDetection = false;
+    }
+    
+    /**
+     * Enables antithetic pairing of replications. The number of replications run
+     * is then always even.
+     * 
+     * @param enabled true to run replications in antithetic pairs
+     */
+    public void setAntithetic(boolean enabled) {
+        this.antithetic = enabled;
+    }
+    
+    /**
+     * Enables MSER-5 warm-up detection on the time in system of each replication,
+     * adding truncated estimates to the results.
+     * 
+     * @param enabled true to enable warm-up detection
+     */
+    public void setWarmupDetection(boolean enabled) {
+        this.warmupDetection = enabled;
+    }
+    
+    /**
+     * Runs replications 0 through numReplications-1 and merges their results.
+     * 
+     * @param numReplications number of replications to run; even in antithetic mode
+     * @return the merged results
+     */
+    public ReplicationSummary run(int numReplications) {
+        if (this.antithetic && numReplications % 2 != 0) {
+            throw new IllegalArgumentException("Antithetic replications must be run in pairs.");
+        }
+        
+        ReplicationSummary summary = new ReplicationSummary(this.antithetic);
+        
+        for (ReplicationResult result : runReplications(0, numReplications)) {
+            summary.add(result);
+        }
+        
+        return summary;
+    }
+    
+    /**
+     * Runs replications in parallel batches until a sequential stopping rule is
+     * met. Each batch holds one replication per thread, so the rule is checked
+     * after every round of parallel work; the result may therefore include up to
+     * one batch more than strictly required. Replication indices are contiguous
+     * from zero, so the outcome is reproducible for a given master seed and
+     * parallelism.
+     * 
+     * @param rule the stopping rule; its replication limit must be even in
+     * antithetic mode
+     * @return the merged results of all replications run
+     */
+    public ReplicationSummary run(SequentialStoppingRule rule) {
+        // an even limit lets every batch of whole pairs fit within it
+        if (this.antithetic && rule.getMaxReplications() % 2 != 0) {
+            throw new IllegalArgumentException("Antithetic replications must be run in pairs;"
+                    + " the replication limit must be even.");
+        }
+        
+        ReplicationSummary summary = new ReplicationSummary(this.antithetic);
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        int next = 0;
+        
+        try {
+            while (!rule.isSatisfied(summary)) {
+                // start with enough replications to meet the minimum
+                int batch = Math.max(this.parallelism, rule.getMinReplications() - next);
+                batch = Math.min(batch, rule.getMaxReplications() - next);
+                
+                // keep antithetic pairs together
+                if (this.antithetic && batch % 2 != 0)
+                    batch++;
+                
+                for (ReplicationResult result : runReplications(pool, next, batch)) {
+                    summary.add(result);
+                }
+                
+                next += batch;
+            }
+        } finally {
+            pool.shutdown();
+        }
+        
+        return summary;
+    }
+    
+    /**
+     * Runs one replication on the calling thread.
+     * 
+     * @param replication index of the replication
+     * @return the replication's results
+     */
+    public ReplicationResult runReplication(int replication) {
+        SimEngine engine = new SimEngine();
+        engine.setEndTime(this.endTime);
+        
+        RandomStream stream;
+        if (this.antithetic) {
+            stream = this.streams.getStream(replication / 2);
+            stream.setAntithetic(replication % 2 == 1);
+        }
+        else {
+            stream = this.streams.getStream(replication);
+        }
+        
+        FieldTechNetwork network = new FieldTechNetwork(engine, stream);
+        network.getTransducer().setWarmupDetection(this.warmupDetection);
+        network.run();
+        
+        return new ReplicationResult(replication, this.streams.getMasterSeed(), network);
+    }
+    
+    /**
+     * Runs a contiguous range of replications in parallel.
+     * 
+     * @param first index of the first replication
+     * @param count number of replications
+     * @return the results in replication order
+     */
+    public List<ReplicationResult> runReplications(int first, int count) {
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        
+        try {
+            return runReplications(pool, first, count);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    private List<ReplicationResult> runReplications(ForkJoinPool pool, int first, int count) {
+        List<Callable<ReplicationResult>> tasks = new ArrayList<>(count);
+        
+        for (int r = first; r < first + count; r++) {
+            final int replication = r;
+            tasks.add(() -> runReplication(replication));
+        }
+        
+        List<ReplicationResult> results = new ArrayList<>(count);
+        
+        try {
+            for (Future<ReplicationResult> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running replications.", ie);
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException("Replication failed.", ee.getCause());
+        }
+        
+        return results;
+    }
+}
@@ -0,0 +1,521 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import simstats.ControlVariateEstimator;
+import simstats.QuantileSketch;
+import simstats.RunningStatistics;
+
+/**
+ * Merges the results of independent replications. Replication-level statistics
+ * treat each replication's value as one observation; pooled statistics combine
+ * every job from every replication, including mergeable sketches for percentiles
+ * of time in system and of each station's waits. Each station's time-average
+ * queue length and utilization are replication-level statistics, and its maximum
+ * queue length is the largest seen in any replication.
+ * 
+ * Variance reduction: jobs completed are also estimated with the number of
+ * arrivals as a control variate, and the mean time in system with the
+ * standardized mean service time. If results are added as antithetic pairs, the
+ * two runs of a pair are correlated by design, so every confidence interval, and
+ * the control-variate estimates, are taken over the pair averages instead. The
+ * report gives each estimate's variance ratio against the plain estimate.
+ * 
+ * @author Gary R. Mayer
+ */
+public class ReplicationSummary {
+    private final RunningStatistics meanTimeInSystem;       // one observation per replication
+    private final RunningStatistics jobsCompleted;          // one observation per replication
+    private final RunningStatistics pooledTimeInSystem;     // one observation per job
+    private final QuantileSketch pooledTimeInSystemSketch;  // one observation per job
+    private final RunningStatistics truncatedMeanTimeInSystem;  // one observation per replication
+    private final RunningStatistics warmupJobs;             // one observation per replication
+    private final Map<String, RunningStatistics> stationCompletions;
+    private final Map<String, RunningStatistics> stationMeanWaits;   // one observation per replication
+    private final Map<String, QuantileSketch> stationWaitSketches;   // one observation per job
+    private final Map<String, RunningStatistics> stationQueueLengths;   // one observation per replication
+    private final Map<String, RunningStatistics> stationUtilizations;   // one observation per replication
+    private final Map<String, RunningStatistics> stationMaxQueueLengths; // one observation per replication
+    private ControlVariateEstimator jobsCompletedByArrivals;     // created with the first result
+    private final ControlVariateEstimator timeInSystemByService;
+    private final boolean antitheticPairs;
+    private ReplicationResult pendingPair;                  // first of an antithetic pair
+    private final RunningStatistics pairJobsCompleted;      // one observation per pair
+    private final RunningStatistics pairMeanTimeInSystem;   // one observation per pair
+    private final RunningStatistics pairTruncatedMeanTimeInSystem;  // one observation per pair
+    private final Map<String, RunningStatistics> pairStationMeanWaits;     // one observation per pair
+    private final Map<String, RunningStatistics> pairStationQueueLengths;  // one observation per pair
+    private final Map<String, RunningStatistics> pairStationUtilizations;  // one observation per pair
+    
+    public ReplicationSummary() {
+        this(false);
+    }
+    
+    /**
+     * Creates a summary.
+     * 
+     * @param antitheticPairs true if results are added in pairs, each second result
+     * coming from the antithetic run of the first
+     */
+    public ReplicationSummary(boolean antitheticPairs) {
+        this.meanTimeInSystem = new RunningStatistics();
+        this.jobsCompleted = new RunningStatistics();
+        this.pooledTimeInSystem = new RunningStatistics();
+        this.pooledTimeInSystemSketch = new QuantileSketch();
+        this.truncatedMeanTimeInSystem = new RunningStatistics();
+        this.warmupJobs = new RunningStatistics();
+        this.stationCompletions = new LinkedHashMap<>();
+        this.stationMeanWaits = new LinkedHashMap<>();
+        this.stationWaitSketches = new LinkedHashMap<>();
+        this.stationQueueLengths = new LinkedHashMap<>();
+        this.stationUtilizations = new LinkedHashMap<>();
+        this.stationMaxQueueLengths = new LinkedHashMap<>();
+        this.timeInSystemByService = new ControlVariateEstimator(1.0);
+        this.antitheticPairs = antitheticPairs;
+        this.pairJobsCompleted = new RunningStatistics();
+        this.pairMeanTimeInSystem = new RunningStatistics();
+        this.pairTruncatedMeanTimeInSystem = new RunningStatistics();
+        this.pairStationMeanWaits = new LinkedHashMap<>();
+        this.pairStationQueueLengths = new LinkedHashMap<>();
+        this.pairStationUtilizations = new LinkedHashMap<>();
+    }
+    
+    /**
+     * Adds the results of one replication.
+     * 
+     * @param result results of a finished replication
+     */
+    public void add(ReplicationResult result) {
+        this.jobsCompleted.add(result.getJobsCompleted());
+        this.pooledTimeInSystem.merge(result.getTimeInSystem());
+        this.pooledTimeInSystemSketch.merge(result.getTimeInSystemSketch());
+        
+        // a replication without completed jobs has no mean time in system
+        if (result.getJobsCompleted() > 0) {
+            this.meanTimeInSystem.add(result.getTimeInSystem().getMean());
+            
+            if (!this.antitheticPairs && !Double.isNaN(result.getStandardizedServiceTime())) {
+                this.timeInSystemByService.add(result.getTimeInSystem().getMean(),
+                        result.getStandardizedServiceTime());
+            }
+        }
+        
+        if (this.jobsCompletedByArrivals == null) {
+            this.jobsCompletedByArrivals = new ControlVariateEstimator(result.getExpectedArrivals());
+        }
+        if (!this.antitheticPairs) {
+            this.jobsCompletedByArrivals.add(result.getJobsCompleted(), result.getArrivals());
+        }
+        
+        for (Map.Entry<String, QuantileSketch> entry : result.getStationWaitSketches().entrySet()) {
+            QuantileSketch sketch = this.stationWaitSketches.get(entry.getKey());
+            
+            if (sketch == null) {
+                sketch = new QuantileSketch();
+                this.stationWaitSketches.put(entry.getKey(), sketch);
+            }
+            sketch.merge(entry.getValue());
+        }
+        
+        if (this.antitheticPairs) {
+            addToPair(result);
+        }
+        
+        if (!Double.isNaN(result.getTruncatedMeanTimeInSystem())) {
+            this.truncatedMeanTimeInSystem.add(result.getTruncatedMeanTimeInSystem());
+            this.warmupJobs.add(result.getWarmupJobs());
+        }
+        
+        for (Map.Entry<String, Long> entry : result.getStationCompletions().entrySet()) {
+            statsFor(this.stationCompletions, entry.getKey()).add(entry.getValue());
+        }
+        
+        // only replications in which the station started a job have a mean wait
+        for (Map.Entry<String, RunningStatistics> entry : result.getStationWaits().entrySet()) {
+            RunningStatistics stats = statsFor(this.stationMeanWaits, entry.getKey());
+            
+            if (entry.getValue().getCount() > 0) {
+                stats.add(entry.getValue().getMean());
+            }
+        }
+        
+        for (StationStatistics station : result.getStationStatistics().values()) {
+            RunningStatistics queueLengths = statsFor(this.stationQueueLengths, station.getName());
+            RunningStatistics utilizations = statsFor(this.stationUtilizations, station.getName());
+            
+            if (!Double.isNaN(station.getAverageQueueLength())) {
+                queueLengths.add(station.getAverageQueueLength());
+            }
+            if (!Double.isNaN(station.getUtilization())) {
+                utilizations.add(station.getUtilization());
+            }
+            statsFor(this.stationMaxQueueLengths, station.getName()).add(station.getMaxQueueLength());
+        }
+    }
+    
+    /**
+     * Provides the control-variate estimator of jobs completed per replication,
+     * controlled by the number of arrivals.
+     * 
+     * @return the estimator, or null if no result has been added
+     */
+    public ControlVariateEstimator getJobsCompletedByArrivals() {
+        return this.jobsCompletedByArrivals;
+    }
+    
+    /**
+     * Tells whether results are added in antithetic pairs, in which case the
+     * pair statistics, not the replication-level ones, give valid confidence
+     * intervals.
+     * 
+     * @return true if results are added in pairs
+     */
+    public boolean isAntitheticPairs() {
+        return this.antitheticPairs;
+    }
+    
+    public RunningStatistics getJobsCompleted() {
+        return this.jobsCompleted;
+    }
+    
+    public RunningStatistics getMeanTimeInSystem() {
+        return this.meanTimeInSystem;
+    }
+    
+    /**
+     * Provides statistics on the average jobs completed of each antithetic pair.
+     * 
+     * @return pair statistics; empty unless results are added in pairs
+     */
+    public RunningStatistics getPairJobsCompleted() {
+        return this.pairJobsCompleted;
+    }
+    
+    /**
+     * Provides statistics on the average of the mean times in system of each
+     * antithetic pair in which both runs completed jobs.
+     * 
+     * @return pair statistics; empty unless results are added in pairs
+     */
+    public RunningStatistics getPairMeanTimeInSystem() {
+        return this.pairMeanTimeInSystem;
+    }
+    
+    /**
+     * Provides, per station, statistics on the average mean queue wait of each
+     * antithetic pair in which the station started jobs in both runs, keyed by
+     * station name in network order.
+     * 
+     * @return map of pair statistics; empty unless results are added in pairs
+     */
+    public Map<String, RunningStatistics> getPairStationMeanWaits() {
+        return this.pairStationMeanWaits;
+    }
+    
+    /**
+     * Provides statistics on the average truncated mean time in system of each
+     * antithetic pair.
+     * 
+     * @return pair statistics; empty unless results are added in pairs and
+     * warm-up detection was enabled
+     */
+    public RunningStatistics getPairTruncatedMeanTimeInSystem() {
+        return this.pairTruncatedMeanTimeInSystem;
+    }
+    
+    public RunningStatistics getPooledTimeInSystem() {
+        return this.pooledTimeInSystem;
+    }
+    
+    public QuantileSketch getPooledTimeInSystemSketch() {
+        return this.pooledTimeInSystemSketch;
+    }
+    
+    /**
+     * Provides, per station, statistics on the mean queue wait of each replication
+     * in which the station started at least one job, keyed by station name in
+     * network order.
+     * 
+     * @return map of station mean wait statistics
+     */
+    public Map<String, RunningStatistics> getStationMeanWaits() {
+        return this.stationMeanWaits;
+    }
+    
+    /**
+     * Provides, per station, statistics on the maximum queue length of each
+     * replication, keyed by station name in network order.
+     * 
+     * @return map of station maximum queue length statistics
+     */
+    public Map<String, RunningStatistics> getStationMaxQueueLengths() {
+        return this.stationMaxQueueLengths;
+    }
+    
+    /**
+     * Provides, per station, statistics on the time-average queue length of each
+     * replication, keyed by station name in network order.
+     * 
+     * @return map of station queue length statistics
+     */
+    public Map<String, RunningStatistics> getStationQueueLengths() {
+        return this.stationQueueLengths;
+    }
+    
+    /**
+     * Provides, per station, statistics on the server utilization of each
+     * replication, keyed by station name in network order.
+     * 
+     * @return map of station utilization statistics
+     */
+    public Map<String, RunningStatistics> getStationUtilizations() {
+        return this.stationUtilizations;
+    }
+    
+    /**
+     * Provides, per station, the merged sketch of all queue waits, keyed by station
+     * name in network order.
+     * 
+     * @return map of station wait sketches
+     */
+    public Map<String, QuantileSketch> getStationWaitSketches() {
+        return this.stationWaitSketches;
+    }
+    
+    /**
+     * Provides statistics on each replication's mean time in system after warm-up
+     * deletion; empty unless warm-up detection was enabled.
+     * 
+     * @return truncated mean time in system statistics
+     */
+    public RunningStatistics getTruncatedMeanTimeInSystem() {
+        return this.truncatedMeanTimeInSystem;
+    }
+    
+    /**
+     * Provides the control-variate estimator of the mean time in system, controlled
+     * by the standardized mean service time.
+     * 
+     * @return the estimator
+     */
+    public ControlVariateEstimator getTimeInSystemByService() {
+        return this.timeInSystemByService;
+    }
+    
+    public RunningStatistics getWarmupJobs() {
+        return this.warmupJobs;
+    }
+    
+    public int getReplications() {
+        return (int) this.jobsCompleted.getCount();
+    }
+    
+    /**
+     * Provides, per station, statistics on the number of jobs served in each
+     * replication, keyed by station name in network order.
+     * 
+     * @return map of station completion statistics
+     */
+    public Map<String, RunningStatistics> getStationCompletions() {
+        return this.stationCompletions;
+    }
+    
+    /**
+     * Writes a plain-text report of the summary.
+     * 
+     * @param out stream to write to
+     */
+    public void report(PrintStream out) {
+        out.printf("Replications: %d%n", getReplications());
+        out.printf("Jobs completed per replication: %s (sd %s)%n",
+                format(this.jobsCompleted.getMean()), format(this.jobsCompleted.getStandardDeviation()));
+        // intervals over antithetic runs must come from the pair averages
+        RunningStatistics timeInSystem = this.antitheticPairs
+                ? this.pairMeanTimeInSystem : this.meanTimeInSystem;
+        RunningStatistics truncated = this.antitheticPairs
+                ? this.pairTruncatedMeanTimeInSystem : this.truncatedMeanTimeInSystem;
+        Map<String, RunningStatistics> waits = this.antitheticPairs
+                ? this.pairStationMeanWaits : this.stationMeanWaits;
+        Map<String, RunningStatistics> queueLengths = this.antitheticPairs
+                ? this.pairStationQueueLengths : this.stationQueueLengths;
+        Map<String, RunningStatistics> utilizations = this.antitheticPairs
+                ? this.pairStationUtilizations : this.stationUtilizations;
+        String intervals = this.antitheticPairs ? "95% CI over antithetic pairs" : "95% CI";
+        
+        out.printf("Mean time in system: %s (%s)%n", estimate(timeInSystem), intervals);
+        
+        if (truncated.getCount() > 0) {
+            out.printf("Mean time in system after warm-up: %s (%s), %.1f jobs deleted"
+                    + " per replication%n", estimate(truncated), intervals, this.warmupJobs.getMean());
+        }
+        
+        for (Map.Entry<String, RunningStatistics> entry : this.stationCompletions.entrySet()) {
+            out.printf("  %s: %.3f jobs served per replication, mean wait %s%n",
+                    entry.getKey(), entry.getValue().getMean(),
+                    estimate(statsFor(waits, entry.getKey())));
+        }
+        
+        out.println("Time-average queue length and utilization (" + intervals + "):");
+        for (Map.Entry<String, RunningStatistics> entry : this.stationQueueLengths.entrySet()) {
+            out.printf("  %s: queue %s (max %.0f), utilization %s%n",
+                    entry.getKey(), estimate(statsFor(queueLengths, entry.getKey())),
+                    this.stationMaxQueueLengths.get(entry.getKey()).getMax(),
+                    estimate(statsFor(utilizations, entry.getKey())));
+        }
+        
+        out.println("Percentiles (p50, p90, p99, p99.9) over all jobs:");
+        reportPercentiles(out, "Time in system", this.pooledTimeInSystemSketch);
+        for (Map.Entry<String, QuantileSketch> entry : this.stationWaitSketches.entrySet()) {
+            reportPercentiles(out, entry.getKey() + " wait", entry.getValue());
+        }
+        
+        out.println("Variance reduction (" + intervals + ", variance ratio to the plain estimate):");
+        if (this.jobsCompletedByArrivals != null) {
+            reportControl(out, "Jobs completed, arrival control", this.jobsCompletedByArrivals);
+        }
+        reportControl(out, "Mean time in system, service time control", this.timeInSystemByService);
+        
+        if (this.antitheticPairs) {
+            reportPairs(out, "Jobs completed, antithetic pairs", this.pairJobsCompleted,
+                    this.jobsCompleted);
+            reportPairs(out, "Mean time in system, antithetic pairs", this.pairMeanTimeInSystem,
+                    this.meanTimeInSystem);
+        }
+    }
+    
+    private void addToPair(ReplicationResult result) {
+        if (this.pendingPair == null) {
+            this.pendingPair = result;
+            return;
+        }
+        
+        ReplicationResult first = this.pendingPair;
+        this.pendingPair = null;
+        this.pairJobsCompleted.add((first.getJobsCompleted() + result.getJobsCompleted()) / 2.0);
+        this.jobsCompletedByArrivals.add((first.getJobsCompleted() + result.getJobsCompleted()) / 2.0,
+                (first.getArrivals() + result.getArrivals()) / 2.0);
+        
+        if (first.getJobsCompleted() > 0 && result.getJobsCompleted() > 0) {
+            double meanTimeInSystem = (first.getTimeInSystem().getMean()
+                    + result.getTimeInSystem().getMean()) / 2.0;
+            this.pairMeanTimeInSystem.add(meanTimeInSystem);
+            
+            if (!Double.isNaN(first.getStandardizedServiceTime())
+                    && !Double.isNaN(result.getStandardizedServiceTime())) {
+                this.timeInSystemByService.add(meanTimeInSystem, (first.getStandardizedServiceTime()
+                        + result.getStandardizedServiceTime()) / 2.0);
+            }
+        }
+        
+        addPairAverage(this.pairTruncatedMeanTimeInSystem, first.getTruncatedMeanTimeInSystem(),
+                result.getTruncatedMeanTimeInSystem());
+        
+        for (Map.Entry<String, RunningStatistics> entry : first.getStationWaits().entrySet()) {
+            RunningStatistics pairs = statsFor(this.pairStationMeanWaits, entry.getKey());
+            RunningStatistics other = result.getStationWaits().get(entry.getKey());
+            
+            // only pairs in which the station started a job in both runs have a mean wait
+            if (entry.getValue().getCount() > 0 && other.getCount() > 0) {
+                addPairAverage(pairs, entry.getValue().getMean(), other.getMean());
+            }
+        }
+        
+        for (StationStatistics station : first.getStationStatistics().values()) {
+            StationStatistics other = result.getStationStatistics().get(station.getName());
+            addPairAverage(statsFor(this.pairStationQueueLengths, station.getName()),
+                    station.getAverageQueueLength(), other.getAverageQueueLength());
+            addPairAverage(statsFor(this.pairStationUtilizations, station.getName()),
+                    station.getUtilization(), other.getUtilization());
+        }
+    }
+    
+    /**
+     * Adds the average of a pair's two values, unless either is NaN.
+     */
+    private static void addPairAverage(RunningStatistics pairs, double a, double b) {
+        if (!Double.isNaN(a) && !Double.isNaN(b)) {
+            pairs.add((a + b) / 2.0);
+        }
+    }
+    
+    /**
+     * Formats a mean and its 95% confidence interval half-width, writing n/a for
+     * what cannot be estimated, e.g., the wait at a station no replication
+     * visited, or a half-width from a single observation.
+     */
+    private static String estimate(RunningStatistics stats) {
+        if (stats.getCount() == 0)
+            return "n/a";
+        
+        return estimate(stats.getMean(), stats.getHalfWidth(0.95));
+    }
+    
+    private static String estimate(double mean, double halfWidth) {
+        return Double.isNaN(mean) ? "n/a" : format(mean) + " +/- " + format(halfWidth);
+    }
+    
+    /**
+     * Formats a value to three decimals, or as n/a if it is NaN.
+     */
+    private static String format(double value) {
+        return Double.isNaN(value) ? "n/a" : String.format("%.3f", value);
+    }
+    
+    private static void reportPercentiles(PrintStream out, String label, QuantileSketch sketch) {
+        if (sketch.getCount() == 0)
+            return;
+        
+        out.printf("  %s: %.3f, %.3f, %.3f, %.3f%n", label, sketch.getQuantile(0.5),
+                sketch.getQuantile(0.9), sketch.getQuantile(0.99), sketch.getQuantile(0.999));
+    }
+    
+    private static void reportControl(PrintStream out, String label, ControlVariateEstimator estimator) {
+        out.printf("  %s: %s, ratio %s%n", label,
+                estimate(estimator.getMean(), estimator.getHalfWidth(0.95)),
+                format(estimator.getVarianceRatio()));
+    }
+    
+    private static void reportPairs(PrintStream out, String label, RunningStatistics pairs,
+            RunningStatistics singles) {
+        // an independent pair would have half the variance of a single run
+        out.printf("  %s: %s, ratio %s%n", label, estimate(pairs),
+                format(pairs.getVariance() / (singles.getVariance() / 2.0)));
+    }
+    
+    private static RunningStatistics statsFor(Map<String, RunningStatistics> map, String name) {
+        RunningStatistics stats = map.get(name);
+        
+        if (stats == null) {
+            stats = new RunningStatistics();
+            map.put(name, stats);
+        }
+        
+        return stats;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import randomgenr.AliasTable;
+
+/**
+ * Immutable, validated routing structure of a queue station: the distinct output
+ * stations, their probabilities and an alias table over them. Compiled from the
+ * station's output list before a run; routes added for the same destination are
+ * merged by adding their probabilities.
+ * 
+ * @author Gary R. Mayer
+ */
+public final class RoutingTable {
+    /** allowed deviation of the probability sum from unity */
+    public static final double TOLERANCE = 1e-9;
+    
+    private final QueueStation[] stations;
+    private final double[] probabilities;
+    private final AliasTable aliasTable;
+    
+    /**
+     * Validates and compiles routes.
+     * 
+     * @param owner name of the routing station, used in error messages
+     * @param destinations output station of each route; may repeat
+     * @param routeProbabilities probability of each route
+     * @param count number of routes
+     * @throws IllegalStateException if a probability is outside [0,1] or the
+     * probabilities do not sum to unity
+     */
+    RoutingTable(String owner, QueueStation[] destinations, double[] routeProbabilities, int count) {
+        Map<QueueStation, Integer> index = new IdentityHashMap<>();
+        QueueStation[] merged = new QueueStation[count];
+        double[] mergedProbabilities = new double[count];
+        double total = 0.0;
+        int n = 0;
+        
+        for (int r = 0; r < count; r++) {
+            double p = routeProbabilities[r];
+            
+            if (destinations[r] == null) {
+                throw new IllegalStateException(owner + ": output station must not be null.");
+            }
+            if (!(p >= 0.0 && p <= 1.0)) {
+                throw new IllegalStateException(owner + ": probability " + p + " to "
+                        + destinations[r].getName() + " is outside [0,1].");
+            }
+            
+            // merge duplicate destinations
+            Integer i = index.get(destinations[r]);
+            if (i == null) {
+                i = n++;
+                index.put(destinations[r], i);
+                merged[i] = destinations[r];
+            }
+            mergedProbabilities[i] += p;
+            total += p;
+        }
+        
+        if (Math.abs(total - 1.0) > TOLERANCE) {
+            throw new IllegalStateException(owner + ": output probabilities sum to " + total
+                    + "; they must sum to unity.");
+        }
+        
+        this.stations = new QueueStation[n];
+        this.probabilities = new double[n];
+        for (int i = 0; i < n; i++) {
+            this.stations[i] = merged[i];
+            this.probabilities[i] = mergedProbabilities[i] / total;
+        }
+        this.aliasTable = new AliasTable(this.probabilities);
+    }
+    
+    public double getProbability(int i) {
+        return this.probabilities[i];
+    }
+    
+    public QueueStation getStation(int i) {
+        return this.stations[i];
+    }
+    
+    /**
+     * Selects an output station.
+     * 
+     * @param uniform a value uniformly distributed over [0,1)
+     * @return the selected station
+     */
+    public QueueStation select(double uniform) {
+        return this.stations[this.aliasTable.sample(uniform)];
+    }
+    
+    /**
+     * Provides the number of distinct output stations.
+     * 
+     * @return number of output stations
+     */
+    public int size() {
+        return this.stations.length;
+    }
+}
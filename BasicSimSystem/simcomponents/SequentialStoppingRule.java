@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.Map;
+import simstats.RunningStatistics;
+
+/**
+ * Decides when enough replications have been run: the confidence interval on the
+ * mean time in system (and, optionally, on each station's mean queue wait) must be
+ * narrower than a given fraction of the estimated mean.
+ * 
+ * If the replications are run in antithetic pairs, the two runs of a pair are
+ * correlated by design, so the mean time in system and the station waits are
+ * judged on the pair averages, as in the summary report.
+ * 
+ * A metric whose estimate is exactly zero with zero variance, e.g., the wait at a
+ * station that never queues, is considered precise. A station that has started jobs
+ * in fewer than two replications cannot be estimated yet, so requiring station
+ * waits may run rarely visited stations up to the replication limit.
+ * 
+ * @author Gary R. Mayer
+ */
+public class SequentialStoppingRule {
+    private final double relativePrecision;
+    private double confidence;
+    private int minReplications;
+    private int maxReplications;
+    private boolean stationWaitsRequired;
+    
+    /**
+     * Creates a rule with a 95% confidence level, at least 10 and at most 100,000
+     * replications, and no requirement on station waits.
+     * 
+     * @param relativePrecision largest acceptable ratio of confidence interval
+     * half-width to estimated mean, e.g., 0.05
+     */
+    public SequentialStoppingRule(double relativePrecision) {
+        if (!(relativePrecision > 0.0)) {
+            throw new IllegalArgumentException("Relative precision must be greater than zero.");
+        }
+        
+        this.relativePrecision = relativePrecision;
+        this.confidence = 0.95;
+        this.minReplications = 10;
+        this.maxReplications = 100000;
+        this.stationWaitsRequired = false;
+    }
+    
+    public double getConfidence() {
+        return this.confidence;
+    }
+    
+    public int getMaxReplications() {
+        return this.maxReplications;
+    }
+    
+    public int getMinReplications() {
+        return this.minReplications;
+    }
+    
+    public double getRelativePrecision() {
+        return this.relativePrecision;
+    }
+    
+    public boolean isStationWaitsRequired() {
+        return this.stationWaitsRequired;
+    }
+    
+    /**
+     * Determines whether the replications summarized so far meet the rule. The
+     * replication limit also ends the procedure.
+     * 
+     * @param summary merged results of the replications run so far
+     * @return true if no more replications are needed
+     */
+    public boolean isSatisfied(ReplicationSummary summary) {
+        int replications = summary.getReplications();
+        
+        if (replications >= this.maxReplications)
+            return true;
+        
+        if (replications < this.minReplications)
+            return false;
+        
+        RunningStatistics timeInSystem = summary.isAntitheticPairs()
+                ? summary.getPairMeanTimeInSystem() : summary.getMeanTimeInSystem();
+        
+        if (!isPrecise(timeInSystem))
+            return false;
+        
+        if (this.stationWaitsRequired) {
+            Map<String, RunningStatistics> waits = summary.isAntitheticPairs()
+                    ? summary.getPairStationMeanWaits() : summary.getStationMeanWaits();
+            
+            for (Map.Entry<String, RunningStatistics> entry : waits.entrySet()) {
+                if (!isPrecise(entry.getValue()))
+                    return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    public void setConfidence(double confidence) {
+        if (!(confidence > 0.0 && confidence < 1.0)) {
+            throw new IllegalArgumentException("Confidence level must be between zero and one.");
+        }
+        
+        this.confidence = confidence;
+    }
+    
+    /**
+     * Sets the replication limits.
+     * 
+     * @param minReplications fewest replications before the rule may be met
+     * @param maxReplications replications after which the procedure stops
+     * regardless of precision
+     */
+    public void setReplicationLimits(int minReplications, int maxReplications) {
+        if (minReplications < 2 || maxReplications < minReplications) {
+            throw new IllegalArgumentException("Replication limits must satisfy"
+                    + " 2 <= minimum <= maximum.");
+        }
+        
+        this.minReplications = minReplications;
+        this.maxReplications = maxReplications;
+    }
+    
+    public void setStationWaitsRequired(boolean required) {
+        this.stationWaitsRequired = required;
+    }
+    
+    private boolean isPrecise(RunningStatistics stats) {
+        double halfWidth = stats.getHalfWidth(this.confidence);
+        
+        // NaN (too few observations) is never precise
+        return halfWidth <= this.relativePrecision * Math.abs(stats.getMean());
+    }
+}
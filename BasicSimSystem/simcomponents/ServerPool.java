@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+/**
+ * The servers of a queue station as an indexed array of slots, each holding the
+ * job in service or null. A stack of free slots makes starting a job O(1); a job
+ * is finished by its slot, also in O(1).
+ * 
+ * @author Gary R. Mayer
+ */
+final class ServerPool {
+    private final Job[] slots;
+    private final int[] freeSlots;      // stack of idle slot indices
+    private int numFree;
+    
+    /**
+     * Creates a pool of idle servers.
+     * 
+     * @param numServers number of servers; a negative number gives an empty pool
+     */
+    ServerPool(int numServers) {
+        int n = Math.max(numServers, 0);
+        this.slots = new Job[n];
+        this.freeSlots = new int[n];
+        
+        // hand out low slots first
+        for (int i = 0; i < n; i++) {
+            this.freeSlots[i] = n - 1 - i;
+        }
+        this.numFree = n;
+    }
+    
+    int getBusyCount() {
+        return this.slots.length - this.numFree;
+    }
+    
+    boolean hasIdleServer() {
+        return this.numFree > 0;
+    }
+    
+    /**
+     * Puts a job into service on an idle server.
+     * 
+     * @param job the job to serve
+     * @return the slot of the server, or -1 if all servers are busy
+     */
+    int start(Job job) {
+        if (this.numFree == 0)
+            return -1;
+        
+        int slot = this.freeSlots[--this.numFree];
+        this.slots[slot] = job;
+        return slot;
+    }
+    
+    /**
+     * Removes the job from a server, making the server idle.
+     * 
+     * @param slot the server's slot
+     * @return the job that was in service
+     * @throws IllegalStateException if the server is idle
+     */
+    Job finish(int slot) {
+        Job job = this.slots[slot];
+        
+        if (job == null) {
+            throw new IllegalStateException("Server " + slot + " has no job in service.");
+        }
+        
+        this.slots[slot] = null;
+        this.freeSlots[this.numFree++] = slot;
+        return job;
+    }
+    
+    int size() {
+        return this.slots.length;
+    }
+}
@@ -25,11 +25,11 @@
  */
 package simcomponents;
 
-import java.util.PriorityQueue;
-
 /**
  * SimEngine class to execute queue station models.
- * Implements the Singleton design pattern...because.
+ * A shared instance is available through getInstance(); independent engines may
+ * also be constructed, e.g., to run several models concurrently in one JVM. An
+ * engine and the models registered with it must be used by one thread at a time.
  * 
  * @author Gary R. Mayer
  */
@@ -37,12 +37,31 @@ public class SimEngine implements EventObserver {
     private static SimEngine instance;
     private double endTime;
     private double simTime;
-    private final PriorityQueue<SimEvent> eventQueue;
+    private long eventSequence;         // number of events scheduled so far
+    private final EventCalendarType calendarType;
+    private final EventCalendar eventQueue;
     
     public static SimEngine getInstance() {
+        return getInstance(EventCalendarType.HEAP);
+    }
+    
+    /**
+     * Provides the engine, creating it with the given type of event calendar on
+     * first use.
+     * 
+     * @param calendarType event calendar implementation for the engine to use
+     * @return the simulation engine
+     * @throws IllegalStateException if the engine already exists with a different
+     * type of event calendar
+     */
+    public static synchronized SimEngine getInstance(EventCalendarType calendarType) {
         
         if (SimEngine.instance == null) {
-            SimEngine.instance = new SimEngine();
+            SimEngine.instance = new SimEngine(calendarType);
+        }
+        else if (SimEngine.instance.calendarType != calendarType) {
+            throw new IllegalStateException("Simulation engine already created with a "
+                    + SimEngine.instance.calendarType + " event calendar.");
         }
         
         return SimEngine.instance;
@@ -53,12 +72,33 @@ public class SimEngine implements EventObserver {
         // change event delta time to simulation time
         double eventTime = this.simTime + simEvent.getEventTime();
         simEvent.setEventTime(eventTime);
+        simEvent.setSequence(this.eventSequence);
         
-        // put the simulation event in the event queue
-        this.eventQueue.add(simEvent);
-        System.out.printf("  Engine: Rec'vd event from " + simEvent.getSimulatable().getName()
-                + " to occur at %.3f%n", eventTime);
-        //System.out.printf("Event Job time: %.3f%n", simEvent.getEventTime()- this.simTime);
+        addEvent(eventTime, simEvent.getPriority(), simEvent.getSimulatable());
+    }
+    
+    @Override
+    public void schedule(Simulatable simulatable, double delay, int priority) {
+        addEvent(this.simTime + delay, priority, simulatable);
+    }
+    
+    public double getEndTime() {
+        return this.endTime;
+    }
+    
+    @Override
+    public double getSimTime() {
+        return this.simTime;
+    }
+    
+    /**
+     * Discards all pending events and returns the clock to zero so the engine can
+     * run another model. The end time is kept.
+     */
+    public void reset() {
+        this.eventQueue.clear();
+        this.simTime = 0.0;
+        this.eventSequence = 0L;
     }
     
     public void setEndTime(double endTime) {
@@ -66,33 +106,58 @@ public class SimEngine implements EventObserver {
     }
     
     public void simulate() {
-        SimEvent nextEvent;
         Simulatable simulatable;
-        System.out.printf("Simulation time: %.3f. Running until: %.1f%n", this.simTime, this.endTime);
+        SimTrace.record(TraceEvent.RUN_STARTED, null, null, this.simTime, this.endTime, 0, 0);
         
         while ((this.endTime > this.simTime) && (!this.eventQueue.isEmpty())) {
-            // get next event
-            nextEvent = this.eventQueue.poll();
+            // update sim time to the next event time, then get next event
+            this.simTime = this.eventQueue.peekTime();
+            simulatable = this.eventQueue.poll();
             
-            if (nextEvent != null) {
-                // update sim time; assumes event time is sim time
-                this.simTime = nextEvent.getEventTime();
-                System.out.printf("Event simulation time: %.3f%n", this.simTime);
-                //System.out.printf("Event Job time: %.3f%n", this.simTime - nextEvent.getEventTime());
+            if (simulatable != null) {
+                if (SimTrace.isEnabled(TraceLevel.EVENT)) {
+                    SimTrace.record(TraceEvent.EVENT_EXECUTED, null, this.simTime);
+                }
                 
                 // make the next event happen
-                simulatable = nextEvent.getSimulatable();
                 simulatable.execute();
             }
         }
         
-        System.out.printf("Last event at %.3f%n.", this.simTime);
+        SimTrace.record(TraceEvent.RUN_ENDED, null, this.simTime);
+        SimTrace.flush();
+    }
+    
+    /**
+     * Puts an event in the event queue. The sequence number keeps simultaneous
+     * events of the same priority class in the order they were scheduled.
+     */
+    private void addEvent(double eventTime, int priority, Simulatable simulatable) {
+        this.eventQueue.add(eventTime, priority, this.eventSequence++, simulatable);
+        
+        if (SimTrace.isEnabled(TraceLevel.EVENT)) {
+            SimTrace.record(TraceEvent.EVENT_SCHEDULED, simulatable.getName(), eventTime);
+        }
+    }
+    
+    /**
+     * Creates an independent engine using a heap event calendar.
+     */
+    public SimEngine() {
+        this(EventCalendarType.HEAP);
     }
     
-    private SimEngine() {
+    /**
+     * Creates an independent engine.
+     * 
+     * @param calendarType event calendar implementation for the engine to use
+     */
+    public SimEngine(EventCalendarType calendarType) {
         this.endTime = 0.0;
         this.simTime = 0.0;
-        this.eventQueue = new PriorityQueue<>(100);
+        this.eventSequence = 0L;
+        this.calendarType = calendarType;
+        this.eventQueue = calendarType.create();
     }
     
 }
@@ -28,39 +28,67 @@ package simcomponents;
 /**
  * Simulation event that pairs a Simulatable object with its next event time.
  * Implements a Comparator interface to allow the object to sorted by the event
- * time.
+ * time. Events at the same time are ordered by priority class and then by the
+ * order in which they were scheduled, so simultaneous events always execute in
+ * the same order regardless of the event calendar in use.
  * 
  * @author Gary R. Mayer
  */
 public class SimEvent implements Comparable<SimEvent> {
-    private final Simulatable simulatable;
-    private Double time
-;    
+    /** priority class of events that do not specify one */
+    public static final int DEFAULT_PRIORITY = 0;
+    
+    private Simulatable simulatable;
+    private int priority;
+    private long sequence;
+    private double time;
+    
     /**
      * Creates a SimEvent instance.
      * 
      * @param simulatable the Simulatable object with the upcoming event
      * @param eventTime the event time
      */
-    public SimEvent(Simulatable simulatable, Double eventTime) {
+    public SimEvent(Simulatable simulatable, double eventTime) {
+        this(simulatable, eventTime, DEFAULT_PRIORITY);
+    }
+    
+    /**
+     * Creates a SimEvent instance with a priority class. Of the events occurring at
+     * the same time, those with a lower priority value are executed first.
+     * 
+     * @param simulatable the Simulatable object with the upcoming event
+     * @param eventTime the event time
+     * @param priority the priority class of the event
+     */
+    public SimEvent(Simulatable simulatable, double eventTime, int priority) {
         this.simulatable = simulatable;
         this.time = eventTime;
+        this.priority = priority;
+        this.sequence = 0L;
     }
         
     /**
      * Comparison of two simulation events for the purposes of ordering. The
-     * method returns a comparison based upon the event time delta values.
+     * method returns a comparison based upon the event time delta values, then the
+     * priority class, then the scheduling sequence number.
      * 
      * @param event simulation event to which this one should be compared
-     * @return 
+     * @return a negative value, zero or a positive value if this event comes
+     * before, at the same point as or after the given event
      */
     @Override
     public int compareTo(SimEvent event) {
         // Assume neither SimEvent is null
-        Double eventTime2 = event.time;
+        int result = Double.compare(this.time, event.time);
+        
+        if (result == 0)
+            result = Integer.compare(this.priority, event.priority);
         
-        // use Double's innate numeric comparator
-        return this.time.compareTo(eventTime2);
+        if (result == 0)
+            result = Long.compare(this.sequence, event.sequence);
+        
+        return result;
     }
     
     /**
@@ -79,12 +107,39 @@ public class SimEvent implements Comparable<SimEvent> {
      * 
      * @return the event time delta
      */
-    public Double getEventTime() {
+    public double getEventTime() {
         return this.time;
     }
+    
+    public int getPriority() {
+        return this.priority;
+    }
+    
+    /**
+     * Provides the sequence number the engine assigned when the event was scheduled.
+     * 
+     * @return the scheduling sequence number
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
 
-    public void setEventTime(Double eventTime) {
+    public void setEventTime(double eventTime) {
         this.time = eventTime;
     }
     
+    /**
+     * Reinitializes a recycled event instance.
+     */
+    void reset(Simulatable simulatable, double eventTime, int priority, long sequence) {
+        this.simulatable = simulatable;
+        this.time = eventTime;
+        this.priority = priority;
+        this.sequence = sequence;
+    }
+    
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+    
 }
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Formatter;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Structured trace of simulation activity. Components record fixed-layout trace
+ * records instead of formatting text. Records are collected in per-thread buffers
+ * of primitive arrays and handed to a background writer thread, which does all of
+ * the formatting and output. When a record's level is not enabled, the guarded
+ * call site costs a single static field comparison.
+ * 
+ * Typical call site:
+ * <pre>
+ *     if (SimTrace.isEnabled(TraceLevel.EVENT)) {
+ *         SimTrace.record(TraceEvent.JOB_ROUTED, this.name, station.getName());
+ *     }
+ * </pre>
+ * 
+ * The level may be chosen at launch with the simtrace.level system property,
+ * e.g., -Dsimtrace.level=EVENT; see configuredLevel.
+ * 
+ * @author Gary R. Mayer
+ */
+public final class SimTrace {
+    /** system property naming the trace level, e.g., EVENT */
+    public static final String LEVEL_PROPERTY = "simtrace.level";
+    
+    private static final int BUFFER_RECORDS = 4096;
+    private static final int MAX_BUFFERS = 16;
+    
+    private static TraceLevel level = TraceLevel.SUMMARY;
+    private static PrintStream output = System.out;
+    private static Thread writer;
+    
+    private static final BlockingQueue<RecordBuffer> filledBuffers
+            = new ArrayBlockingQueue<>(MAX_BUFFERS);
+    private static final BlockingQueue<RecordBuffer> spareBuffers
+            = new ArrayBlockingQueue<>(MAX_BUFFERS);
+    private static final ThreadLocal<RecordBuffer> threadBuffer = new ThreadLocal<>();
+    
+    private SimTrace() {
+    }
+    
+    /**
+     * Writes out every record buffered by the calling thread and waits until the
+     * writer thread has finished with them.
+     */
+    public static void flush() {
+        RecordBuffer buffer = threadBuffer.get();
+        
+        if (buffer == null)
+            return;
+        
+        CountDownLatch written = new CountDownLatch(1);
+        buffer.written = written;
+        handOff(buffer);
+        
+        try {
+            written.await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Provides the trace level named by the simtrace.level system property, in
+     * any letter case.
+     * 
+     * @param defaultLevel level to use if the property is not set
+     * @return the configured level
+     * @throws IllegalArgumentException if the property does not name a trace level
+     */
+    public static TraceLevel configuredLevel(TraceLevel defaultLevel) {
+        String value = System.getProperty(LEVEL_PROPERTY);
+        
+        if (value == null || value.trim().isEmpty())
+            return defaultLevel;
+        
+        try {
+            return TraceLevel.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalArgumentException("Invalid " + LEVEL_PROPERTY + " '" + value
+                    + "'; expected one of " + Arrays.toString(TraceLevel.values()) + ".");
+        }
+    }
+    
+    public static TraceLevel getLevel() {
+        return SimTrace.level;
+    }
+    
+    /**
+     * Determines whether records of a trace level are written.
+     * 
+     * @param recordLevel the trace level of the record
+     * @return true if records of that level are written
+     */
+    public static boolean isEnabled(TraceLevel recordLevel) {
+        return recordLevel.compareTo(SimTrace.level) <= 0 && recordLevel != TraceLevel.OFF;
+    }
+    
+    public static void record(TraceEvent event, String name) {
+        record(event, name, null, 0.0, 0.0, 0, 0);
+    }
+    
+    public static void record(TraceEvent event, String name, String otherName) {
+        record(event, name, otherName, 0.0, 0.0, 0, 0);
+    }
+    
+    public static void record(TraceEvent event, String name, double value) {
+        record(event, name, null, value, 0.0, 0, 0);
+    }
+    
+    public static void record(TraceEvent event, String name, int count) {
+        record(event, name, null, 0.0, 0.0, count, 0);
+    }
+    
+    /**
+     * Adds a record to the calling thread's trace buffer. Records of a level that
+     * is not enabled are dropped.
+     * 
+     * @param event kind of record
+     * @param name name of the component writing the record
+     * @param otherName name of another component involved, if any
+     * @param value first value
+     * @param value2 second value
+     * @param count first count
+     * @param count2 second count
+     */
+    public static void record(TraceEvent event, String name, String otherName,
+            double value, double value2, int count, int count2) {
+        if (!isEnabled(event.getLevel()))
+            return;
+        
+        RecordBuffer buffer = threadBuffer.get();
+        
+        if (buffer == null) {
+            buffer = obtainBuffer();
+            threadBuffer.set(buffer);
+        }
+        
+        int r = buffer.size++;
+        buffer.events[r] = event;
+        buffer.names[r] = name;
+        buffer.otherNames[r] = otherName;
+        buffer.values[r] = value;
+        buffer.values2[r] = value2;
+        buffer.counts[r] = count;
+        buffer.counts2[r] = count2;
+        
+        if (buffer.size == BUFFER_RECORDS) {
+            handOff(buffer);
+        }
+    }
+    
+    /**
+     * Sets the trace level. Intended to be called before a simulation starts.
+     * 
+     * @param traceLevel the most detailed trace level to write
+     */
+    public static void setLevel(TraceLevel traceLevel) {
+        SimTrace.level = traceLevel;
+    }
+    
+    /**
+     * Sets the stream the writer thread renders records to. Defaults to System.out.
+     * 
+     * @param stream trace output stream
+     */
+    public static synchronized void setOutput(PrintStream stream) {
+        SimTrace.output = stream;
+    }
+    
+    /**
+     * Queues a buffer for the writer thread and gives the calling thread an
+     * empty one.
+     */
+    private static void handOff(RecordBuffer buffer) {
+        startWriter();
+        
+        try {
+            filledBuffers.put(buffer);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            buffer.size = 0;
+            return;
+        }
+        
+        threadBuffer.set(obtainBuffer());
+    }
+    
+    private static RecordBuffer obtainBuffer() {
+        RecordBuffer buffer = spareBuffers.poll();
+        return (buffer == null) ? new RecordBuffer() : buffer;
+    }
+    
+    private static synchronized void startWriter() {
+        if (SimTrace.writer == null) {
+            SimTrace.writer = new Thread(SimTrace::writeRecords, "SimTrace writer");
+            SimTrace.writer.setDaemon(true);
+            SimTrace.writer.start();
+        }
+    }
+    
+    private static void writeRecords() {
+        StringBuilder text = new StringBuilder(BUFFER_RECORDS*48);
+        Formatter formatter = new Formatter(text);
+        
+        while (true) {
+            RecordBuffer buffer;
+            
+            try {
+                buffer = filledBuffers.take();
+            } catch (InterruptedException ie) {
+                return;
+            }
+            
+            for (int r = 0; r < buffer.size; r++) {
+                formatter.format(buffer.events[r].getFormat(), buffer.names[r],
+                        buffer.otherNames[r], buffer.values[r], buffer.values2[r],
+                        buffer.counts[r], buffer.counts2[r]);
+            }
+            
+            synchronized (SimTrace.class) {
+                SimTrace.output.print(text);
+                SimTrace.output.flush();
+            }
+            
+            text.setLength(0);
+            CountDownLatch written = buffer.written;
+            buffer.clear();
+            spareBuffers.offer(buffer);
+            
+            if (written != null) {
+                written.countDown();
+            }
+        }
+    }
+    
+    /**
+     * Fixed-size block of trace records stored column-wise.
+     */
+    private static class RecordBuffer {
+        private final TraceEvent[] events = new TraceEvent[BUFFER_RECORDS];
+        private final String[] names = new String[BUFFER_RECORDS];
+        private final String[] otherNames = new String[BUFFER_RECORDS];
+        private final double[] values = new double[BUFFER_RECORDS];
+        private final double[] values2 = new double[BUFFER_RECORDS];
+        private final int[] counts = new int[BUFFER_RECORDS];
+        private final int[] counts2 = new int[BUFFER_RECORDS];
+        private int size;
+        private CountDownLatch written;
+        
+        private void clear() {
+            Arrays.fill(this.names, 0, this.size, null);
+            Arrays.fill(this.otherNames, 0, this.size, null);
+            this.size = 0;
+            this.written = null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+/**
+ * Snapshot of a queue station's time-weighted statistics: average and maximum
+ * queue length, average number of busy servers and utilization, over the time
+ * from the start of the run to when the snapshot was taken.
+ * 
+ * @author Gary R. Mayer
+ */
+public class StationStatistics {
+    private final String name;
+    private final double elapsedTime;
+    private final int numServers;
+    private final long jobsCompleted;
+    private final double averageQueueLength;
+    private final int maxQueueLength;
+    private final double averageBusyServers;
+    
+    StationStatistics(String name, double elapsedTime, int numServers, long jobsCompleted,
+            double averageQueueLength, int maxQueueLength, double averageBusyServers) {
+        this.name = name;
+        this.elapsedTime = elapsedTime;
+        this.numServers = numServers;
+        this.jobsCompleted = jobsCompleted;
+        this.averageQueueLength = averageQueueLength;
+        this.maxQueueLength = maxQueueLength;
+        this.averageBusyServers = averageBusyServers;
+    }
+    
+    /**
+     * Provides the time-average number of busy servers.
+     * 
+     * @return average busy servers, or NaN if no time has elapsed
+     */
+    public double getAverageBusyServers() {
+        return this.averageBusyServers;
+    }
+    
+    /**
+     * Provides the time-average number of jobs waiting in the queue, not counting
+     * jobs in service.
+     * 
+     * @return average queue length, or NaN if no time has elapsed
+     */
+    public double getAverageQueueLength() {
+        return this.averageQueueLength;
+    }
+    
+    public double getElapsedTime() {
+        return this.elapsedTime;
+    }
+    
+    public long getJobsCompleted() {
+        return this.jobsCompleted;
+    }
+    
+    public int getMaxQueueLength() {
+        return this.maxQueueLength;
+    }
+    
+    public String getName() {
+        return this.name;
+    }
+    
+    public int getNumServers() {
+        return this.numServers;
+    }
+    
+    /**
+     * Provides the fraction of server capacity that was busy: the average number
+     * of busy servers divided by the number of servers.
+     * 
+     * @return utilization in [0,1], or NaN if no time has elapsed
+     */
+    public double getUtilization() {
+        return this.averageBusyServers / this.numServers;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+/**
+ * The kinds of records written to the simulation trace. Each kind carries the
+ * trace level at which it is written and the format used to render it. Formats
+ * refer to the record fields by position: 1 = component name, 2 = other name,
+ * 3 = first value, 4 = second value, 5 = first count, 6 = second count.
+ * 
+ * @author Gary R. Mayer
+ */
+public enum TraceEvent {
+    RUN_STARTED(TraceLevel.SUMMARY, "Simulation time: %3$.3f. Running until: %4$.1f%n"),
+    RUN_ENDED(TraceLevel.SUMMARY, "Last event at %3$.3f%n"),
+    ARRIVALS_CREATED(TraceLevel.SUMMARY, "%1$s: %5$d job(s) created.%n"),
+    EVENT_SCHEDULED(TraceLevel.EVENT, "  Engine: Rec'vd event from %1$s to occur at %3$.3f%n"),
+    EVENT_EXECUTED(TraceLevel.EVENT, "Event simulation time: %3$.3f%n"),
+    JOB_SENT(TraceLevel.EVENT, "  Generator: Sent job to %2$s.%n"),
+    NO_JOBS(TraceLevel.EVENT, "  Generator: No jobs to send.%n"),
+    JOB_STARTED(TraceLevel.EVENT, "  %1$s: Started job. Done in %3$.3f. %5$d of %6$d server(s) busy.%n"),
+    JOB_ROUTED(TraceLevel.EVENT, "  %1$s sending job to %2$s%n"),
+    JOB_COMPLETED(TraceLevel.EVENT, "  Transducer: Job completed.%n"),
+    RC_TIME(TraceLevel.EVENT, "  %1$s RC Time: %3$s%n"),
+    RC_STOCK_USED(TraceLevel.EVENT, "  %1$s Stock used: %5$d%n"),
+    RC_REPLACEMENTS(TraceLevel.EVENT, "  %1$s Replacements needed: %5$d%n"),
+    RC_REPAIRS(TraceLevel.EVENT, "  %1$s Repaired units: %5$d%n");
+    
+    private final TraceLevel level;
+    private final String format;
+    
+    private TraceEvent(TraceLevel level, String format) {
+        this.level = level;
+        this.format = format;
+    }
+    
+    public String getFormat() {
+        return this.format;
+    }
+    
+    public TraceLevel getLevel() {
+        return this.level;
+    }
+}
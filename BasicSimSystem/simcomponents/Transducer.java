@@ -25,38 +25,164 @@
  */
 package simcomponents;
 
+import simstats.BatchMeansEstimator;
+import simstats.MserWarmupDetector;
+import simstats.QuantileSketch;
+import simstats.RunningStatistics;
+
 /**
  * Receives all events leaving the system and acts as a terminating queue station.
  * Can be used to log such events and denote completion time. Might also be used
  * to signal the simulation engine when all jobs that have entered the system have
- * completed.
+ * completed. Records the number of completed jobs and their time in the system;
+ * register the transducer with the simulation engine so it can read the clock.
+ * Time in system is summarized by its mean and variance, a mergeable quantile
+ * sketch that gives any percentile and can be combined across replications, and
+ * the split into queueing and service time; throughput is also kept.
+ * Optionally feeds the times in system to an MSER-5 warm-up detector so that the
+ * initial transient of a run can be deleted from the estimate, and to a
+ * batch-means estimator for confidence intervals from a single long run.
  * 
  * @author Gary R. Mayer
  */
 public class Transducer extends QueueStation {
+    private final RunningStatistics timeInSystem;
+    private final RunningStatistics waitInSystem;       // total queueing time per job
+    private final RunningStatistics serviceInSystem;    // total service time per job
+    private final QuantileSketch timeInSystemSketch;
+    private double lastCompletionTime;
+    private MserWarmupDetector warmupDetector;
+    private BatchMeansEstimator batchMeans;
 
     public Transducer() {
         super("Transducer", -1, 0.0);
+        this.timeInSystem = new RunningStatistics();
+        this.waitInSystem = new RunningStatistics();
+        this.serviceInSystem = new RunningStatistics();
+        this.timeInSystemSketch = new QuantileSketch();
     }
     
     @Override
     public void addJob(Job job) {
-        System.out.printf("  Transducer: Job completed.%n");
-        //System.out.printf("  Transducer: Job completed. TIME: " + job.getEndTime() + "%n");
+        job.setEndTime(currentTime());
+        double sojourn = job.getEndTime() - job.getStartTime();
+        this.timeInSystem.add(sojourn);
+        this.timeInSystemSketch.add(sojourn);
+        this.waitInSystem.add(job.getTotalWaitTime());
+        this.serviceInSystem.add(job.getTotalServiceTime());
+        this.lastCompletionTime = job.getEndTime();
+        
+        if (this.warmupDetector != null) {
+            this.warmupDetector.add(sojourn);
+        }
+        
+        if (this.batchMeans != null) {
+            this.batchMeans.add(sojourn);
+        }
+        
+        if (SimTrace.isEnabled(TraceLevel.EVENT)) {
+            SimTrace.record(TraceEvent.JOB_COMPLETED, getName());
+        }
     }
     
-    @Override
-    public void execute() {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    /**
+     * Provides the batch-means estimator fed with times in system.
+     * 
+     * @return the estimator, or null if not enabled
+     */
+    public BatchMeansEstimator getBatchMeans() {
+        return this.batchMeans;
     }
-
+    
     @Override
-    public void register(EventObserver observer) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    public long getJobsCompleted() {
+        return this.timeInSystem.getCount();
+    }
+    
+    /**
+     * Provides statistics on the time completed jobs spent in service, summed over
+     * their station visits.
+     * 
+     * @return service time statistics
+     */
+    public RunningStatistics getServiceInSystem() {
+        return this.serviceInSystem;
+    }
+    
+    /**
+     * Provides the throughput: completed jobs per unit time from time 0 to the
+     * last completion.
+     * 
+     * @return the throughput, or 0.0 if no job has completed
+     */
+    public double getThroughput() {
+        return (this.lastCompletionTime > 0.0) ? getJobsCompleted() / this.lastCompletionTime : 0.0;
+    }
+    
+    /**
+     * Provides statistics on the time completed jobs spent in the system.
+     * 
+     * @return time-in-system statistics
+     */
+    public RunningStatistics getTimeInSystem() {
+        return this.timeInSystem;
+    }
+    
+    /**
+     * Provides an estimate of a percentile of the time in system from the quantile
+     * sketch.
+     * 
+     * @param p the percentile's probability, in [0,1]; e.g., 0.999 for p99.9
+     * @return the estimate, or NaN if no job has completed
+     */
+    public double getTimeInSystemQuantile(double p) {
+        return this.timeInSystemSketch.getQuantile(p);
+    }
+    
+    /**
+     * Provides the quantile sketch of the time completed jobs spent in the system.
+     * 
+     * @return time-in-system sketch
+     */
+    public QuantileSketch getTimeInSystemSketch() {
+        return this.timeInSystemSketch;
+    }
+    
+    /**
+     * Provides statistics on the time completed jobs spent waiting in queues,
+     * summed over their station visits.
+     * 
+     * @return wait time statistics
+     */
+    public RunningStatistics getWaitInSystem() {
+        return this.waitInSystem;
+    }
+    
+    /**
+     * Provides the warm-up detector fed with times in system.
+     * 
+     * @return the detector, or null if warm-up detection is not enabled
+     */
+    public MserWarmupDetector getWarmupDetector() {
+        return this.warmupDetector;
+    }
+    
+    /**
+     * Sets the batch-means estimator fed with times in system. Set it before a
+     * single long run starts.
+     * 
+     * @param estimator the estimator, or null to disable
+     */
+    public void setBatchMeans(BatchMeansEstimator estimator) {
+        this.batchMeans = estimator;
+    }
+    
+    /**
+     * Enables or disables warm-up detection. Enable it before the run starts.
+     * 
+     * @param enabled true to feed times in system to an MSER-5 warm-up detector
+     */
+    public void setWarmupDetection(boolean enabled) {
+        this.warmupDetector = enabled ? new MserWarmupDetector() : null;
     }
-
-    @Override
-    public void unregister(EventObserver observer) {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
-    }    
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simstats;
+
+/**
+ * Streaming batch-means estimator of the steady-state mean of a single long,
+ * autocorrelated output series, e.g., job sojourn times in one long run.
+ * Observations are grouped into batches whose means are treated as approximately
+ * independent, giving a confidence interval without repeating the run.
+ * 
+ * Memory is fixed: between numBatches and 2*numBatches batch means are kept, and
+ * when the buffer fills, adjacent batches are merged and the batch size doubles.
+ * In adaptive mode the estimate additionally merges batches (on a scratch copy)
+ * until the lag-1 autocorrelation of the batch means is no longer significant or
+ * only a minimum number of batches is left.
+ * 
+ * @author Gary R. Mayer
+ */
+public class BatchMeansEstimator {
+    private static final int MIN_BATCHES = 10;
+    private static final double Z_975 = 1.959963984540054;
+    
+    private final double[] batchMeans;
+    private final double[] scratch;     // batch means used by the current estimate
+    private final boolean adaptive;
+    private int numBatches;
+    private long batchSize;
+    private double batchSum;
+    private long batchCount;
+    private double sum;
+    private long count;
+    
+    // estimate derived from the batch means; valid while estimateValid
+    private boolean estimateValid;
+    private int estimateBatches;
+    private long estimateBatchSize;
+    private double estimateVariance;
+    private double estimateLag1;
+    
+    /**
+     * Creates an estimator.
+     * 
+     * @param numBatches least number of batches kept once enough observations have
+     * been seen; at least 10 (30 is typical)
+     * @param adaptive true to enlarge batches for the estimate until their means
+     * are uncorrelated
+     */
+    public BatchMeansEstimator(int numBatches, boolean adaptive) {
+        if (numBatches < MIN_BATCHES) {
+            throw new IllegalArgumentException("Number of batches must be at least " + MIN_BATCHES + ".");
+        }
+        
+        this.batchMeans = new double[2*numBatches];
+        this.scratch = new double[2*numBatches];
+        this.adaptive = adaptive;
+        clear();
+    }
+    
+    /**
+     * Adds the next observation of the output series.
+     * 
+     * @param value the observed value
+     */
+    public void add(double value) {
+        this.sum += value;
+        this.count++;
+        this.batchSum += value;
+        this.batchCount++;
+        
+        if (this.batchCount == this.batchSize) {
+            this.batchMeans[this.numBatches++] = this.batchSum / this.batchSize;
+            this.batchSum = 0.0;
+            this.batchCount = 0L;
+            this.estimateValid = false;
+            
+            if (this.numBatches == this.batchMeans.length) {
+                this.numBatches = mergePairs(this.batchMeans, this.numBatches);
+                this.batchSize *= 2;
+            }
+        }
+    }
+    
+    public final void clear() {
+        this.numBatches = 0;
+        this.batchSize = 1L;
+        this.batchSum = 0.0;
+        this.batchCount = 0L;
+        this.sum = 0.0;
+        this.count = 0L;
+        this.estimateValid = false;
+    }
+    
+    /**
+     * Provides the number of batches used by the estimate.
+     * 
+     * @return number of batches
+     */
+    public int getBatchCount() {
+        estimate();
+        return this.estimateBatches;
+    }
+    
+    /**
+     * Provides the number of observations per batch used by the estimate.
+     * 
+     * @return batch size
+     */
+    public long getBatchSize() {
+        estimate();
+        return this.estimateBatchSize;
+    }
+    
+    public long getCount() {
+        return this.count;
+    }
+    
+    /**
+     * Provides the half-width of a Student's t confidence interval on the mean
+     * based on the batch means.
+     * 
+     * @param confidence confidence level, e.g., 0.95
+     * @return the half-width, or NaN if fewer than two batches are available
+     */
+    public double getHalfWidth(double confidence) {
+        estimate();
+        
+        if (this.estimateBatches < 2)
+            return Double.NaN;
+        
+        double t = StudentT.quantile(0.5 + confidence/2, this.estimateBatches - 1);
+        return t * Math.sqrt(this.estimateVariance / this.estimateBatches);
+    }
+    
+    /**
+     * Provides the lag-1 autocorrelation of the batch means used by the estimate.
+     * 
+     * @return lag-1 autocorrelation, or NaN if fewer than three batches are available
+     */
+    public double getLag1Autocorrelation() {
+        estimate();
+        return this.estimateLag1;
+    }
+    
+    /**
+     * Provides the mean of all observations.
+     * 
+     * @return the mean, or NaN if there are no observations
+     */
+    public double getMean() {
+        return (this.count == 0) ? Double.NaN : this.sum / this.count;
+    }
+    
+    /**
+     * Determines whether the lag-1 autocorrelation of the batch means is within
+     * the approximate 95% bounds of zero, +/- 1.96/sqrt(batches), i.e., whether the
+     * batches are large enough for the confidence interval to be trusted.
+     * 
+     * @return true if the batch means appear uncorrelated
+     */
+    public boolean isUncorrelated() {
+        estimate();
+        return Math.abs(this.estimateLag1) <= Z_975 / Math.sqrt(this.estimateBatches);
+    }
+    
+    private void estimate() {
+        if (this.estimateValid)
+            return;
+        
+        System.arraycopy(this.batchMeans, 0, this.scratch, 0, this.numBatches);
+        int batches = this.numBatches;
+        long size = this.batchSize;
+        double lag1 = lag1(this.scratch, batches);
+        
+        // merge further while correlation remains significant
+        while (this.adaptive && batches/2 >= MIN_BATCHES
+                && Math.abs(lag1) > Z_975 / Math.sqrt(batches)) {
+            batches = mergePairs(this.scratch, batches);
+            size *= 2;
+            lag1 = lag1(this.scratch, batches);
+        }
+        
+        double mean = 0.0;
+        for (int j = 0; j < batches; j++) {
+            mean += this.scratch[j];
+        }
+        mean /= batches;
+        
+        double ss = 0.0;
+        for (int j = 0; j < batches; j++) {
+            ss += (this.scratch[j] - mean) * (this.scratch[j] - mean);
+        }
+        
+        this.estimateBatches = batches;
+        this.estimateBatchSize = size;
+        this.estimateVariance = (batches < 2) ? Double.NaN : ss / (batches - 1);
+        this.estimateLag1 = lag1;
+        this.estimateValid = true;
+    }
+    
+    private static double lag1(double[] means, int n) {
+        if (n < 3)
+            return Double.NaN;
+        
+        double mean = 0.0;
+        for (int j = 0; j < n; j++) {
+            mean += means[j];
+        }
+        mean /= n;
+        
+        double num = 0.0;
+        double den = 0.0;
+        for (int j = 0; j < n; j++) {
+            double dev = means[j] - mean;
+            den += dev*dev;
+            
+            if (j > 0)
+                num += dev * (means[j - 1] - mean);
+        }
+        
+        return (den == 0.0) ? 0.0 : num / den;
+    }
+    
+    /**
+     * Averages adjacent pairs of batch means in place; an odd last batch is dropped.
+     * 
+     * @return the new number of batches
+     */
+    private static int mergePairs(double[] means, int n) {
+        int half = n / 2;
+        
+        for (int j = 0; j < half; j++) {
+            means[j] = (means[2*j] + means[2*j + 1]) / 2.0;
+        }
+        
+        return half;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simstats;
+
+/**
+ * Control-variate estimator of the mean of an output Y, one observation per
+ * replication, using a control X observed in the same replication whose mean is
+ * known, e.g., the number of arrivals generated or the standardized mean service
+ * time. The controlled estimate is mean(Y) - b*(mean(X) - E[X]) with b the
+ * least-squares slope of Y on X; its variance shrinks by about 1 - rho^2, where
+ * rho is the correlation of X and Y. Streaming and constant memory.
+ * 
+ * @author Gary R. Mayer
+ */
+public class ControlVariateEstimator {
+    private final double controlMean;
+    private long count;
+    private double meanY;
+    private double meanX;
+    private double sumSqDevY;       // co-moments by Welford's update
+    private double sumSqDevX;
+    private double sumCrossDev;
+    
+    /**
+     * Creates an estimator.
+     * 
+     * @param controlMean the known expected value of the control
+     */
+    public ControlVariateEstimator(double controlMean) {
+        this.controlMean = controlMean;
+    }
+    
+    /**
+     * Adds the output and control observed in one replication.
+     * 
+     * @param y the output
+     * @param x the control
+     */
+    public void add(double y, double x) {
+        this.count++;
+        double deltaX = x - this.meanX;
+        this.meanX += deltaX / this.count;
+        double deltaY = y - this.meanY;
+        this.meanY += deltaY / this.count;
+        
+        this.sumSqDevX += deltaX * (x - this.meanX);
+        this.sumSqDevY += deltaY * (y - this.meanY);
+        this.sumCrossDev += deltaX * (y - this.meanY);
+    }
+    
+    /**
+     * Provides the least-squares coefficient b of the control.
+     * 
+     * @return the coefficient, or 0.0 if the control has not varied
+     */
+    public double getCoefficient() {
+        return (this.sumSqDevX > 0.0) ? this.sumCrossDev / this.sumSqDevX : 0.0;
+    }
+    
+    public long getCount() {
+        return this.count;
+    }
+    
+    /**
+     * Provides the half-width of a Student's t confidence interval, with n - 2
+     * degrees of freedom, on the controlled mean.
+     * 
+     * @param confidence confidence level, e.g., 0.95
+     * @return the half-width, or NaN if fewer than three observations
+     */
+    public double getHalfWidth(double confidence) {
+        if (this.count < 3)
+            return Double.NaN;
+        
+        return StudentT.quantile(0.5 + confidence/2, this.count - 2) * Math.sqrt(getVarianceOfMean());
+    }
+    
+    /**
+     * Provides the controlled estimate of the mean of the output.
+     * 
+     * @return the controlled mean, or NaN if there are no observations
+     */
+    public double getMean() {
+        if (this.count == 0)
+            return Double.NaN;
+        
+        return this.meanY - getCoefficient() * (this.meanX - this.controlMean);
+    }
+    
+    /**
+     * Provides the uncontrolled sample mean of the output.
+     * 
+     * @return the sample mean, or NaN if there are no observations
+     */
+    public double getSampleMean() {
+        return (this.count == 0) ? Double.NaN : this.meanY;
+    }
+    
+    /**
+     * Provides the estimated variance of the controlled mean.
+     * 
+     * @return the variance, or NaN if fewer than three observations
+     */
+    public double getVarianceOfMean() {
+        if (this.count < 3)
+            return Double.NaN;
+        
+        // residual variance of the regression of Y on X
+        double residual = this.sumSqDevY - getCoefficient() * this.sumCrossDev;
+        double s2 = Math.max(residual, 0.0) / (this.count - 2);
+        double offset = this.meanX - this.controlMean;
+        double leverage = (this.sumSqDevX > 0.0) ? offset*offset / this.sumSqDevX : 0.0;
+        
+        return s2 * (1.0/this.count + leverage);
+    }
+    
+    /**
+     * Provides the variance-reduction ratio: the variance of the controlled mean
+     * divided by that of the sample mean. Values below one mean the control pays.
+     * 
+     * @return the ratio, or NaN if fewer than three observations or the output
+     * has not varied
+     */
+    public double getVarianceRatio() {
+        if (this.count < 3 || this.sumSqDevY == 0.0)
+            return Double.NaN;
+        
+        double sampleVarianceOfMean = this.sumSqDevY / (this.count - 1) / this.count;
+        return getVarianceOfMean() / sampleVarianceOfMean;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simstats;
+
+import java.util.Arrays;
+
+/**
+ * Online warm-up detection using the MSER-5 rule (K. P. White, 1997). Observations
+ * are averaged into batches of five; the truncation point is the number of leading
+ * batches whose deletion minimizes the marginal standard error of the remaining
+ * batch means. Only the first half of the run is considered as warm-up.
+ * 
+ * Memory is bounded: when the buffer of batch means is full, adjacent batches are
+ * merged and the batch size doubles, so the truncation point keeps a resolution of
+ * a fixed fraction of the run however long it is.
+ * 
+ * @author Gary R. Mayer
+ */
+public class MserWarmupDetector {
+    private static final int BASE_BATCH_SIZE = 5;
+    
+    private final double[] batchMeans;
+    private int numBatches;
+    private long batchSize;
+    private double batchSum;
+    private long batchCount;
+    
+    public MserWarmupDetector() {
+        this(1024);
+    }
+    
+    /**
+     * Creates a detector holding at most a given number of batch means.
+     * 
+     * @param maxBatches capacity of the batch mean buffer; an even number of at least 4
+     */
+    public MserWarmupDetector(int maxBatches) {
+        if (maxBatches < 4 || maxBatches % 2 != 0) {
+            throw new IllegalArgumentException("Batch capacity must be an even number of at least 4.");
+        }
+        
+        this.batchMeans = new double[maxBatches];
+        clear();
+    }
+    
+    /**
+     * Adds the next observation of the output series.
+     * 
+     * @param value the observed value
+     */
+    public void add(double value) {
+        this.batchSum += value;
+        this.batchCount++;
+        
+        if (this.batchCount == this.batchSize) {
+            this.batchMeans[this.numBatches++] = this.batchSum / this.batchSize;
+            this.batchSum = 0.0;
+            this.batchCount = 0L;
+            
+            if (this.numBatches == this.batchMeans.length) {
+                compact();
+            }
+        }
+    }
+    
+    public final void clear() {
+        Arrays.fill(this.batchMeans, 0.0);
+        this.numBatches = 0;
+        this.batchSize = BASE_BATCH_SIZE;
+        this.batchSum = 0.0;
+        this.batchCount = 0L;
+    }
+    
+    /**
+     * Provides the number of observations in completed batches. Observations of a
+     * final, incomplete batch are not used.
+     * 
+     * @return number of observations available to the rule
+     */
+    public long getObservationCount() {
+        return this.numBatches * this.batchSize;
+    }
+    
+    /**
+     * Provides the number of leading observations to delete as warm-up.
+     * 
+     * @return the truncation point in observations
+     */
+    public long getTruncationPoint() {
+        return truncationBatches() * this.batchSize;
+    }
+    
+    /**
+     * Provides the statistics of the batch means that remain after truncation.
+     * Their mean is the truncated estimate of the steady-state mean.
+     * 
+     * @return statistics of the retained batch means
+     */
+    public RunningStatistics getTruncatedBatchMeans() {
+        RunningStatistics retained = new RunningStatistics();
+        
+        for (int j = truncationBatches(); j < this.numBatches; j++) {
+            retained.add(this.batchMeans[j]);
+        }
+        
+        return retained;
+    }
+    
+    /**
+     * Provides the steady-state mean estimate after warm-up deletion.
+     * 
+     * @return the truncated mean, or NaN if no batch has been completed
+     */
+    public double getTruncatedMean() {
+        return getTruncatedBatchMeans().getMean();
+    }
+    
+    /**
+     * Merges pairs of batches, halving their number and doubling the batch size.
+     */
+    private void compact() {
+        int half = this.numBatches / 2;
+        
+        for (int j = 0; j < half; j++) {
+            this.batchMeans[j] = (this.batchMeans[2*j] + this.batchMeans[2*j + 1]) / 2.0;
+        }
+        
+        this.numBatches = half;
+        this.batchSize *= 2;
+    }
+    
+    /**
+     * Finds the number of leading batches d, within the first half of the batches,
+     * minimizing sum((Z_j - mean_d)^2) / (k - d)^2 over the retained batch means.
+     */
+    private int truncationBatches() {
+        int k = this.numBatches;
+        
+        if (k < 2)
+            return 0;
+        
+        // accumulate suffix sums from the end so each candidate costs O(1)
+        double sum = 0.0;
+        double sumSq = 0.0;
+        double bestStat = Double.POSITIVE_INFINITY;
+        int best = 0;
+        
+        for (int d = k - 1; d >= 0; d--) {
+            double z = this.batchMeans[d];
+            sum += z;
+            sumSq += z*z;
+            
+            if (d <= k/2) {
+                int n = k - d;
+                double stat = Math.max(0.0, sumSq - sum*sum/n) / ((double) n * n);
+                
+                if (stat <= bestStat) {
+                    bestStat = stat;
+                    best = d;
+                }
+            }
+        }
+        
+        return best;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simstats;
+
+/**
+ * Mergeable streaming quantile sketch over nonnegative values, laid out like an
+ * HDR histogram: values are counted in logarithmic buckets, one power of two
+ * split into 64 linear sub-buckets, so every quantile is reported within 0.8% of
+ * a true sample value. Sub-bucket arrays are allocated only for the powers of two
+ * that occur, so memory is bounded by the range of the data (at most 61 arrays of
+ * 64 counts, covering about 1e-6 to 1e12) and never grows with run length.
+ * Sketches from parallel replications merge by adding counts.
+ * 
+ * Values below the smallest bucket, such as zero waits, are counted in a zero
+ * bucket and values above the largest in the top bucket; estimates are clamped to
+ * the exact minimum and maximum, which are kept separately.
+ * 
+ * @author Gary R. Mayer
+ */
+public class QuantileSketch {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = -20;
+    private static final int MAX_EXPONENT = 40;
+    
+    private final long[][] counts = new long[MAX_EXPONENT - MIN_EXPONENT + 1][];
+    private long zeroCount;         // values too small for the lowest bucket, e.g., zero waits
+    private long count;
+    private double min;
+    private double max;
+    
+    public QuantileSketch() {
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+    
+    /**
+     * Adds an observation.
+     * 
+     * @param value the observed value; nonnegative
+     */
+    public void add(double value) {
+        if (!(value >= 0.0)) {
+            throw new IllegalArgumentException("Values must be nonnegative.");
+        }
+        
+        this.count++;
+        if (value < this.min)
+            this.min = value;
+        if (value > this.max)
+            this.max = value;
+        
+        int exponent = Math.getExponent(value);
+        
+        if (exponent < MIN_EXPONENT) {
+            this.zeroCount++;
+            return;
+        }
+        
+        int sub;
+        if (exponent > MAX_EXPONENT) {
+            exponent = MAX_EXPONENT;
+            sub = SUB_BUCKETS - 1;
+        }
+        else {
+            // leading mantissa bits select the linear sub-bucket
+            sub = (int) ((Double.doubleToRawLongBits(value) >>> (52 - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        }
+        
+        long[] row = this.counts[exponent - MIN_EXPONENT];
+        if (row == null) {
+            row = new long[SUB_BUCKETS];
+            this.counts[exponent - MIN_EXPONENT] = row;
+        }
+        row[sub]++;
+    }
+    
+    public long getCount() {
+        return this.count;
+    }
+    
+    /**
+     * Provides the smallest value added.
+     * 
+     * @return the minimum, or NaN if there are no observations
+     */
+    public double getMin() {
+        return (this.count == 0) ? Double.NaN : this.min;
+    }
+    
+    /**
+     * Provides the largest value added.
+     * 
+     * @return the maximum, or NaN if there are no observations
+     */
+    public double getMax() {
+        return (this.count == 0) ? Double.NaN : this.max;
+    }
+    
+    /**
+     * Provides an estimate of a quantile: the midpoint of the bucket holding the
+     * observation of rank ceil(p*n), clamped to the observed minimum and maximum.
+     * 
+     * @param p the quantile's probability, in [0,1]; e.g., 0.999 for p99.9
+     * @return the estimate, or NaN if there are no observations
+     */
+    public double getQuantile(double p) {
+        if (!(p >= 0.0 && p <= 1.0)) {
+            throw new IllegalArgumentException("Probability must be in [0,1].");
+        }
+        if (this.count == 0)
+            return Double.NaN;
+        
+        long rank = Math.max(1L, (long) Math.ceil(p * this.count));
+        long seen = this.zeroCount;
+        
+        if (seen >= rank)
+            return this.min;
+        
+        for (int e = 0; e < this.counts.length; e++) {
+            long[] row = this.counts[e];
+            if (row == null)
+                continue;
+            
+            for (int sub = 0; sub < SUB_BUCKETS; sub++) {
+                seen += row[sub];
+                
+                if (seen >= rank) {
+                    double lower = Math.scalb(1.0 + (double) sub / SUB_BUCKETS, e + MIN_EXPONENT);
+                    double upper = Math.scalb(1.0 + (sub + 1.0) / SUB_BUCKETS, e + MIN_EXPONENT);
+                    return Math.min(Math.max((lower + upper) / 2.0, this.min), this.max);
+                }
+            }
+        }
+        
+        return this.max;
+    }
+    
+    /**
+     * Adds the counts of another sketch to this one.
+     * 
+     * @param other the sketch to merge
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0)
+            return;
+        
+        for (int e = 0; e < this.counts.length; e++) {
+            long[] from = other.counts[e];
+            if (from == null)
+                continue;
+            
+            if (this.counts[e] == null)
+                this.counts[e] = new long[SUB_BUCKETS];
+            
+            for (int sub = 0; sub < SUB_BUCKETS; sub++) {
+                this.counts[e][sub] += from[sub];
+            }
+        }
+        
+        this.zeroCount += other.zeroCount;
+        this.count += other.count;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simstats;
+
+/**
+ * Streaming count, mean, variance, minimum and maximum of a series of
+ * observations, using Welford's update. Constant memory regardless of the number
+ * of observations. Two instances can be merged, e.g., to combine the results of
+ * parallel replications.
+ * 
+ * @author Gary R. Mayer
+ */
+public class RunningStatistics {
+    private long count;
+    private double mean;
+    private double sumSqDev;    // sum of squared deviations from the mean
+    private double min;
+    private double max;
+    
+    public RunningStatistics() {
+        clear();
+    }
+    
+    /**
+     * Adds an observation.
+     * 
+     * @param value the observed value
+     */
+    public void add(double value) {
+        this.count++;
+        double delta = value - this.mean;
+        this.mean += delta / this.count;
+        this.sumSqDev += delta * (value - this.mean);
+        
+        if (value < this.min)
+            this.min = value;
+        
+        if (value > this.max)
+            this.max = value;
+    }
+    
+    public final void clear() {
+        this.count = 0L;
+        this.mean = 0.0;
+        this.sumSqDev = 0.0;
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+    
+    public long getCount() {
+        return this.count;
+    }
+    
+    /**
+     * Provides the half-width of a Student's t confidence interval on the mean,
+     * treating the observations as independent and identically distributed.
+     * 
+     * @param confidence confidence level, e.g., 0.95
+     * @return the half-width, or NaN if there are fewer than two observations
+     */
+    public double getHalfWidth(double confidence) {
+        if (this.count < 2)
+            return Double.NaN;
+        
+        double t = StudentT.quantile(0.5 + confidence/2, this.count - 1);
+        return t * Math.sqrt(getVariance() / this.count);
+    }
+    
+    public double getMax() {
+        return this.max;
+    }
+    
+    /**
+     * Provides the sample mean.
+     * 
+     * @return the mean, or NaN if there are no observations
+     */
+    public double getMean() {
+        return (this.count == 0) ? Double.NaN : this.mean;
+    }
+    
+    public double getMin() {
+        return this.min;
+    }
+    
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+    
+    /**
+     * Provides the (unbiased) sample variance.
+     * 
+     * @return the variance, or NaN if there are fewer than two observations
+     */
+    public double getVariance() {
+        return (this.count < 2) ? Double.NaN : this.sumSqDev / (this.count - 1);
+    }
+    
+    /**
+     * Adds all observations summarized by another instance to this one.
+     * 
+     * @param other statistics to merge into this instance
+     */
+    public void merge(RunningStatistics other) {
+        if (other.count == 0)
+            return;
+        
+        if (this.count == 0) {
+            this.count = other.count;
+            this.mean = other.mean;
+            this.sumSqDev = other.sumSqDev;
+            this.min = other.min;
+            this.max = other.max;
+            return;
+        }
+        
+        long total = this.count + other.count;
+        double delta = other.mean - this.mean;
+        this.mean += delta * other.count / total;
+        this.sumSqDev += other.sumSqDev + delta*delta * ((double) this.count * other.count / total);
+        this.count = total;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+}
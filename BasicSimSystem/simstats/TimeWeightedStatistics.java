@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simstats;
+
+/**
+ * Time-weighted average and maximum of a piecewise-constant level, such as a
+ * queue length or a number of busy servers. The level's integral over time is
+ * accumulated in O(1) at each change, so no history of changes is kept.
+ * 
+ * @author Gary R. Mayer
+ */
+public class TimeWeightedStatistics {
+    private double startTime;
+    private double lastTime;    // time of the last change
+    private double level;       // level since the last change
+    private double area;        // integral of the level up to the last change
+    private double max;
+    
+    public TimeWeightedStatistics() {
+        this(0.0);
+    }
+    
+    /**
+     * Constructor for a level of zero from the given start time.
+     * 
+     * @param startTime time from which the level is observed
+     */
+    public TimeWeightedStatistics(double startTime) {
+        this.startTime = startTime;
+        this.lastTime = startTime;
+    }
+    
+    /**
+     * Provides the time-weighted average of the level from the start time up to
+     * the given time.
+     * 
+     * @param time the end of the observed period; not before the last change
+     * @return the average, or NaN if no time has elapsed
+     */
+    public double getAverage(double time) {
+        double elapsed = time - this.startTime;
+        return (elapsed > 0.0) ? getArea(time) / elapsed : Double.NaN;
+    }
+    
+    /**
+     * Provides the integral of the level over time from the start time up to the
+     * given time.
+     * 
+     * @param time the end of the observed period; not before the last change
+     * @return the integral
+     */
+    public double getArea(double time) {
+        checkTime(time);
+        return this.area + this.level * (time - this.lastTime);
+    }
+    
+    public double getLevel() {
+        return this.level;
+    }
+    
+    public double getMax() {
+        return this.max;
+    }
+    
+    public double getStartTime() {
+        return this.startTime;
+    }
+    
+    /**
+     * Restarts observation at the given time, keeping the current level, e.g.,
+     * to delete a warm-up period.
+     * 
+     * @param time the new start time; not before the last change
+     */
+    public void reset(double time) {
+        checkTime(time);
+        this.startTime = time;
+        this.lastTime = time;
+        this.area = 0.0;
+        this.max = this.level;
+    }
+    
+    /**
+     * Records that the level changed at the given time.
+     * 
+     * @param time time of the change; not before the last change
+     * @param level the new level
+     */
+    public void update(double time, double level) {
+        checkTime(time);
+        this.area += this.level * (time - this.lastTime);
+        this.lastTime = time;
+        this.level = level;
+        
+        if (level > this.max)
+            this.max = level;
+    }
+    
+    private void checkTime(double time) {
+        if (time < this.lastTime) {
+            throw new IllegalArgumentException("Time " + time + " is before the last change at "
+                    + this.lastTime + ".");
+        }
+    }
+}
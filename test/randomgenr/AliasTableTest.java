@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests the alias table on the routing probabilities of the field tech network.
+ * The mass the table gives each index, read off a fine grid of uniform values,
+ * must equal the normalized weight, and seeded sampling frequencies must pass a chi-square test
+ * against it.
+ * 
+ * @author Gary R. Mayer
+ */
+public class AliasTableTest {
+    private static final int DRAWS = 1000000;
+    private static final int GRID = 1 << 20;
+    private static final double Z_999 = 3.090;      // standard normal 0.999 quantile
+    
+    // call center, software tech and hardware manager routing, and a skewed table
+    // with an index that must never be chosen
+    private static final double[][] WEIGHTS = {
+        {0.58, 0.27, 0.15},
+        {0.30, 0.20, 0.50},
+        {0.05, 0.31, 0.64},
+        {1.0, 0.0, 7.0, 0.25, 3.0}
+    };
+    
+    @Test
+    public void tableHoldsRoutingProbabilities() {
+        for (double[] weights : WEIGHTS) {
+            AliasTable table = new AliasTable(weights);
+            double[] mass = new double[weights.length];
+            
+            // sweep the midpoints of a fine grid over [0,1); each column's split
+            // between itself and its alias is off by at most one grid step
+            for (int g = 0; g < GRID; g++) {
+                mass[table.sample((g + 0.5) / GRID)] += 1.0 / GRID;
+            }
+            
+            double total = sum(weights);
+            for (int i = 0; i < weights.length; i++) {
+                assertEquals("index " + i + " of " + weights.length, weights[i] / total, mass[i],
+                        2.0 * weights.length / GRID);
+            }
+        }
+    }
+    
+    @Test
+    public void samplingMatchesRoutingProbabilities() {
+        UniformSource source = UniformSourceType.XOSHIRO_256_PLUS_PLUS.create(51L);
+        
+        for (double[] weights : WEIGHTS) {
+            AliasTable table = new AliasTable(weights);
+            long[] counts = new long[weights.length];
+            
+            for (int i = 0; i < DRAWS; i++) {
+                counts[table.sample(source.nextDouble())]++;
+            }
+            
+            double total = sum(weights);
+            double chiSquare = 0.0;
+            int df = -1;
+            
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] == 0.0) {
+                    assertEquals("index " + i + " has no weight", 0L, counts[i]);
+                    continue;
+                }
+                
+                double expected = DRAWS * weights[i] / total;
+                chiSquare += (counts[i] - expected)*(counts[i] - expected) / expected;
+                df++;
+            }
+            
+            assertTrue("chi-square " + chiSquare + " on " + df + " df",
+                    chiSquare <= chiSquareQuantile(df));
+        }
+    }
+    
+    private static double sum(double[] values) {
+        double sum = 0.0;
+        for (double v : values) {
+            sum += v;
+        }
+        
+        return sum;
+    }
+    
+    /**
+     * Approximates the 0.999 quantile of the chi-square distribution by the
+     * Wilson-Hilferty transformation.
+     */
+    private static double chiSquareQuantile(int df) {
+        double c = 2.0 / (9.0 * df);
+        return df * Math.pow(1.0 - c + Z_999*Math.sqrt(c), 3);
+    }
+}
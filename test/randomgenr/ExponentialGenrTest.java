@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+import java.util.Arrays;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Compares the ziggurat exponential sampler with inversion at fixed seeds: both
+ * must pass a Kolmogorov-Smirnov test against the exponential distribution, agree
+ * on the mean and variance, and put the right mass, with the right shape, in the
+ * tail beyond the ziggurat's last layer. All bounds are at about the 0.001 level.
+ * 
+ * @author Gary R. Mayer
+ */
+public class ExponentialGenrTest {
+    private static final int DRAWS = 2000000;
+    private static final double RATE = 2.0;
+    private static final double TAIL_START = 7.69711747013104972;   // in units of the mean
+    private static final double Z_999 = 3.29;       // two-sided standard normal 0.999 quantile
+    
+    @Test
+    public void inversionMatchesExponentialCdf() {
+        assertMatchesCdf(draw(ExponentialMethod.INVERSION, 31L));
+    }
+    
+    @Test
+    public void zigguratMatchesExponentialCdf() {
+        assertMatchesCdf(draw(ExponentialMethod.ZIGGURAT, 32L));
+    }
+    
+    @Test
+    public void zigguratMomentsMatchInversion() {
+        double[] inversion = draw(ExponentialMethod.INVERSION, 33L);
+        double[] ziggurat = draw(ExponentialMethod.ZIGGURAT, 34L);
+        double mean = 1.0 / RATE;
+        
+        // standard errors of the mean and of the variance of exponential samples
+        double meanError = Z_999 * Math.sqrt(2.0 / DRAWS) * mean;
+        double varianceError = Z_999 * Math.sqrt(2.0 * 8.0 / DRAWS) * mean*mean;
+        
+        assertTrue("means " + mean(inversion) + ", " + mean(ziggurat),
+                Math.abs(mean(inversion) - mean(ziggurat)) <= meanError);
+        assertTrue("variances " + variance(inversion) + ", " + variance(ziggurat),
+                Math.abs(variance(inversion) - variance(ziggurat)) <= varianceError);
+    }
+    
+    @Test
+    public void zigguratTailBeyondLastLayer() {
+        for (ExponentialMethod method : ExponentialMethod.values()) {
+            double[] variates = draw(method, 35L);
+            double start = TAIL_START / RATE;
+            long count = 0L;
+            double excess = 0.0;
+            
+            for (double x : variates) {
+                if (x > start) {
+                    count++;
+                    excess += x - start;
+                }
+            }
+            
+            // the tail holds exp(-R) of the mass and is again exponential
+            double expected = DRAWS * Math.exp(-TAIL_START);
+            assertTrue(method + ": " + count + " draws in the tail, " + expected + " expected",
+                    Math.abs(count - expected) <= Z_999 * Math.sqrt(expected));
+            
+            double meanExcess = excess / count * RATE;
+            assertTrue(method + ": mean tail excess " + meanExcess,
+                    Math.abs(meanExcess - 1.0) <= Z_999 / Math.sqrt(count));
+        }
+    }
+    
+    private static double[] draw(ExponentialMethod method, long seed) {
+        ExponentialGenr genr = new ExponentialGenr(seed);
+        genr.setEventRate(RATE);
+        genr.setMethod(method);
+        double[] variates = new double[DRAWS];
+        
+        for (int i = 0; i < DRAWS; i++) {
+            variates[i] = genr.nextVariate();
+        }
+        
+        return variates;
+    }
+    
+    private static void assertMatchesCdf(double[] variates) {
+        double[] sorted = variates.clone();
+        Arrays.sort(sorted);
+        double distance = 0.0;
+        
+        for (int i = 0; i < sorted.length; i++) {
+            double cdf = 1.0 - Math.exp(-RATE * sorted[i]);
+            distance = Math.max(distance, Math.max(cdf - (double) i / sorted.length,
+                    (double) (i + 1) / sorted.length - cdf));
+        }
+        
+        // Kolmogorov-Smirnov critical value at the 0.001 level
+        assertTrue("Kolmogorov-Smirnov distance " + distance,
+                distance <= 1.95 / Math.sqrt(sorted.length));
+    }
+    
+    private static double mean(double[] values) {
+        double sum = 0.0;
+        for (double x : values) {
+            sum += x;
+        }
+        
+        return sum / values.length;
+    }
+    
+    private static double variance(double[] values) {
+        double mean = mean(values);
+        double sum = 0.0;
+        for (double x : values) {
+            sum += (x - mean)*(x - mean);
+        }
+        
+        return sum / (values.length - 1);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests the Poisson generator against the exact probability mass function with
+ * chi-square tests at fixed seeds, on both sides of the switch from inversion to
+ * PTRS rejection at a rate of 10, and checks that the switch itself does not move
+ * the distribution.
+ * 
+ * @author Gary R. Mayer
+ */
+public class PoissonGenrTest {
+    private static final int DRAWS = 200000;
+    private static final double Z_999 = 3.090;      // standard normal 0.999 quantile
+    
+    @Test
+    public void smallRateMatchesPmf() {
+        assertMatchesPmf(0.5, 11L);
+    }
+    
+    @Test
+    public void rateBelowSwitchMatchesPmf() {
+        assertMatchesPmf(9.99, 12L);
+    }
+    
+    @Test
+    public void rateAtSwitchMatchesPmf() {
+        assertMatchesPmf(10.0, 13L);
+    }
+    
+    @Test
+    public void largeRateMatchesPmf() {
+        assertMatchesPmf(500.0, 14L);
+    }
+    
+    @Test
+    public void switchIsContinuous() {
+        double[] below = empiricalCdf(9.99, 21L);
+        double[] at = empiricalCdf(10.0, 22L);
+        
+        // two-sample Kolmogorov-Smirnov bound at the 0.001 level, plus the
+        // largest difference between the two exact distributions
+        double exact = 0.0;
+        for (int k = 0; k < below.length; k++) {
+            exact = Math.max(exact, Math.abs(cdf(9.99, k) - cdf(10.0, k)));
+        }
+        double bound = 1.95 * Math.sqrt(2.0 / DRAWS) + exact;
+        
+        for (int k = 0; k < below.length; k++) {
+            assertTrue("cdf at " + k + " jumps by " + Math.abs(below[k] - at[k]),
+                    Math.abs(below[k] - at[k]) <= bound);
+        }
+        
+        // the means may differ by 0.01 plus 0.999 two-sided sampling error
+        double meanBound = 0.01 + 3.29 * Math.sqrt(2.0 * 10.0 / DRAWS);
+        double jump = Math.abs(mean(9.99, 23L) - mean(10.0, 24L));
+        assertTrue("mean jumps by " + jump, jump <= meanBound);
+    }
+    
+    private static void assertMatchesPmf(double rate, long seed) {
+        PoissonGenr genr = new PoissonGenr(seed);
+        genr.setEventRate(rate);
+        int max = (int) (rate + 10.0*Math.sqrt(rate) + 20.0);
+        long[] observed = new long[max + 1];
+        
+        for (int i = 0; i < DRAWS; i++) {
+            observed[Math.min((int) genr.nextVariate(), max)]++;
+        }
+        
+        // merge neighbouring values until every bin expects at least five draws;
+        // the last bin takes the upper tail
+        double chiSquare = 0.0;
+        int bins = 0;
+        double binExpected = 0.0;
+        long binObserved = 0L;
+        
+        for (int k = 0; k <= max; k++) {
+            binExpected += (k < max) ? DRAWS * pmf(rate, k) : DRAWS * (1.0 - cdf(rate, max - 1));
+            binObserved += observed[k];
+            
+            if (binExpected >= 5.0 && DRAWS * (1.0 - cdf(rate, k)) >= 5.0) {
+                chiSquare += square(binObserved - binExpected) / binExpected;
+                bins++;
+                binExpected = 0.0;
+                binObserved = 0L;
+            }
+        }
+        chiSquare += square(binObserved - binExpected) / binExpected;
+        bins++;
+        
+        assertTrue("rate " + rate + ": chi-square " + chiSquare + " on " + (bins - 1) + " df",
+                chiSquare <= chiSquareQuantile(bins - 1));
+    }
+    
+    private static double[] empiricalCdf(double rate, long seed) {
+        PoissonGenr genr = new PoissonGenr(seed);
+        genr.setEventRate(rate);
+        double[] cdf = new double[40];
+        
+        for (int i = 0; i < DRAWS; i++) {
+            int k = (int) genr.nextVariate();
+            
+            for (int j = k; j < cdf.length; j++) {
+                cdf[j] += 1.0 / DRAWS;
+            }
+        }
+        
+        return cdf;
+    }
+    
+    private static double mean(double rate, long seed) {
+        PoissonGenr genr = new PoissonGenr(seed);
+        genr.setEventRate(rate);
+        double sum = 0.0;
+        
+        for (int i = 0; i < DRAWS; i++) {
+            sum += genr.nextVariate();
+        }
+        
+        return sum / DRAWS;
+    }
+    
+    private static double pmf(double rate, int k) {
+        double logFactorial = 0.0;
+        for (int i = 2; i <= k; i++) {
+            logFactorial += Math.log(i);
+        }
+        
+        return Math.exp(-rate + k*Math.log(rate) - logFactorial);
+    }
+    
+    private static double cdf(double rate, int k) {
+        double sum = 0.0;
+        for (int i = 0; i <= k; i++) {
+            sum += pmf(rate, i);
+        }
+        
+        return Math.min(sum, 1.0);
+    }
+    
+    /**
+     * Approximates the 0.999 quantile of the chi-square distribution by the
+     * Wilson-Hilferty transformation.
+     */
+    private static double chiSquareQuantile(int df) {
+        double c = 2.0 / (9.0 * df);
+        return df * Math.pow(1.0 - c + Z_999*Math.sqrt(c), 3);
+    }
+    
+    private static double square(double x) {
+        return x*x;
+    }
+}
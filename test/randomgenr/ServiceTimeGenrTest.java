@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests the service-time generators at fixed seeds: getMean must give the exact
+ * mean, and the sample mean and variance of a million draws must match the
+ * distribution's, the mean within its 0.999 sampling bound and the variance
+ * within 3%.
+ * 
+ * @author Gary R. Mayer
+ */
+public class ServiceTimeGenrTest {
+    private static final int DRAWS = 1000000;
+    private static final double Z_999 = 3.29;       // two-sided standard normal 0.999 quantile
+    private static final double VARIANCE_TOLERANCE = 0.03;
+    
+    @Test
+    public void erlangMoments() {
+        // 3 phases, mean 1/0.5
+        assertMoments("Erlang", new ErlangGenr(3, 0.5, 61L), 2.0, 4.0/3.0);
+    }
+    
+    @Test
+    public void gammaMoments() {
+        assertMoments("gamma, shape 0.5", new GammaGenr(0.5, 2.0, 62L), 1.0, 2.0);
+        assertMoments("gamma, shape 2.5", new GammaGenr(2.5, 0.4, 63L), 1.0, 0.4);
+    }
+    
+    @Test
+    public void lognormalMoments() {
+        assertMoments("lognormal", new LognormalGenr(3.0, 1.5, 64L), 3.0, 2.25);
+    }
+    
+    @Test
+    public void weibullMoments() {
+        // shape 2 is the Rayleigh distribution
+        assertMoments("Weibull, shape 2", new WeibullGenr(2.0, 3.0, 65L),
+                3.0 * Math.sqrt(Math.PI) / 2.0, 9.0 * (1.0 - Math.PI/4.0));
+        
+        // shape 0.5: mean scale*Gamma(3), variance scale^2*(Gamma(5) - Gamma(3)^2)
+        assertMoments("Weibull, shape 0.5", new WeibullGenr(0.5, 0.25, 66L), 0.5, 1.25);
+    }
+    
+    @Test
+    public void triangularMoments() {
+        // (a + b + c)/3 and (a^2 + b^2 + c^2 - ab - ac - bc)/18
+        assertMoments("triangular", new TriangularGenr(1.0, 2.0, 6.0, 67L), 3.0, 7.0/6.0);
+    }
+    
+    @Test
+    public void empiricalMoments() {
+        EmpiricalGenr discrete = new EmpiricalGenr(new double[] {1.0, 2.0, 5.0},
+                new double[] {0.2, 0.5, 0.3});
+        discrete.setSeed(68L);
+        assertMoments("discrete empirical", discrete, 2.7, 2.41);
+        
+        // each segment between order statistics is a uniform with probability 1/3
+        EmpiricalGenr continuous = new EmpiricalGenr(new double[] {8.0, 1.0, 4.0, 2.0});
+        continuous.setSeed(69L);
+        assertMoments("continuous empirical", continuous, 3.5, 147.0/9.0 - 12.25);
+    }
+    
+    private static void assertMoments(String name, RandomVariateGenr genr, double mean,
+            double variance) {
+        assertEquals(name + " getMean", mean, genr.getMean(), 1e-12 * mean);
+        
+        double sum = 0.0;
+        double sumSquares = 0.0;
+        for (int i = 0; i < DRAWS; i++) {
+            double x = genr.nextVariate() - mean;
+            sum += x;
+            sumSquares += x*x;
+        }
+        
+        double sampleMean = mean + sum / DRAWS;
+        double sampleVariance = (sumSquares - sum*sum/DRAWS) / (DRAWS - 1);
+        
+        assertEquals(name + " mean", mean, sampleMean, Z_999 * Math.sqrt(variance / DRAWS));
+        assertTrue(name + " variance " + sampleVariance + ", expected " + variance,
+                Math.abs(sampleVariance - variance) <= VARIANCE_TOLERANCE * variance);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package randomgenr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests the uniform sources and the streams built on xoshiro256++ at fixed seeds:
+ * uniformity of every source type, reproducibility from a seed, divergence of
+ * split sources, substream positioning, and antithetic values.
+ * 
+ * @author Gary R. Mayer
+ */
+public class UniformSourceTest {
+    private static final int DRAWS = 1000000;
+    private static final int BINS = 100;
+    private static final int SEQUENCE = 1000;
+    private static final double Z_999 = 3.090;      // standard normal 0.999 quantile
+    
+    @Test
+    public void everySourceIsUniform() {
+        for (UniformSourceType type : UniformSourceType.values()) {
+            UniformSource source = type.create(41L);
+            long[] counts = new long[BINS];
+            
+            for (int i = 0; i < DRAWS; i++) {
+                double u = source.nextDouble();
+                assertTrue(type + " drew " + u, u >= 0.0 && u < 1.0);
+                counts[(int) (u * BINS)]++;
+            }
+            
+            double expected = (double) DRAWS / BINS;
+            double chiSquare = 0.0;
+            for (long count : counts) {
+                chiSquare += (count - expected)*(count - expected) / expected;
+            }
+            
+            assertTrue(type + ": chi-square " + chiSquare, chiSquare <= chiSquareQuantile(BINS - 1));
+        }
+    }
+    
+    @Test
+    public void seedReproducesSequence() {
+        for (UniformSourceType type : UniformSourceType.values()) {
+            UniformSource first = type.create(42L);
+            UniformSource second = type.create(42L);
+            double[] expected = draw(first);
+            
+            assertSameSequence(type + " from seed", expected, draw(second));
+            
+            first.setSeed(42L);
+            assertSameSequence(type + " reseeded", expected, draw(first));
+        }
+    }
+    
+    @Test
+    public void splitSourcesDiverge() {
+        for (UniformSourceType type : UniformSourceType.values()) {
+            UniformSource parent = type.create(43L);
+            UniformSource child = parent.split();
+            double[] parentDraws = draw(parent);
+            double[] childDraws = draw(child);
+            int matches = 0;
+            
+            for (int i = 0; i < SEQUENCE; i++) {
+                if (parentDraws[i] == childDraws[i])
+                    matches++;
+            }
+            assertEquals(type + " matching draws", 0L, matches);
+        }
+    }
+    
+    @Test
+    public void substreamSourcesMatchStreamPositions() {
+        RandomStreamManager manager = new RandomStreamManager(44L);
+        RandomStream stream = manager.getStream(3);
+        
+        for (int substream = 0; substream < 4; substream++) {
+            UniformSource source = stream.getSubstream(substream);
+            stream.setSubstream(substream);
+            assertSameSequence("substream " + substream, draw(stream), draw(source));
+        }
+        
+        // streams are reproducible from the master seed and distinct by index
+        double[] expected = draw(new RandomStreamManager(44L).getStream(3));
+        assertSameSequence("stream 3", expected, draw(manager.getStream(3)));
+        assertTrue("streams 2 and 3 coincide", draw(manager.getStream(2))[0] != expected[0]);
+        
+        // rewinding a substream replays it
+        stream.setSubstream(1);
+        double[] substream = draw(stream);
+        stream.resetStartSubstream();
+        assertSameSequence("rewound substream", substream, draw(stream));
+    }
+    
+    @Test
+    public void antitheticStreamComplementsValues() {
+        RandomStream plain = new RandomStreamManager(45L).getStream(0);
+        RandomStream antithetic = new RandomStreamManager(45L).getStream(0);
+        antithetic.setAntithetic(true);
+        
+        for (int i = 0; i < SEQUENCE; i++) {
+            double u = plain.nextDouble();
+            double v = antithetic.nextDouble();
+            assertEquals("draw " + i, 1.0 - 0x1.0p-53, u + v, 0.0);
+            assertTrue("draw " + i + " out of range", v >= 0.0 && v < 1.0);
+            assertEquals("long " + i, ~plain.nextLong(), antithetic.nextLong());
+        }
+        
+        UniformSource source = antithetic.getSubstream(2);
+        UniformSource reference = plain.getSubstream(2);
+        for (int i = 0; i < SEQUENCE; i++) {
+            assertEquals("substream draw " + i, 1.0 - 0x1.0p-53,
+                    reference.nextDouble() + source.nextDouble(), 0.0);
+        }
+    }
+    
+    private static double[] draw(UniformSource source) {
+        double[] values = new double[SEQUENCE];
+        for (int i = 0; i < SEQUENCE; i++) {
+            values[i] = source.nextDouble();
+        }
+        
+        return values;
+    }
+    
+    private static void assertSameSequence(String message, double[] expected, double[] actual) {
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(message + ", draw " + i, expected[i], actual[i], 0.0);
+        }
+    }
+    
+    /**
+     * Approximates the 0.999 quantile of the chi-square distribution by the
+     * Wilson-Hilferty transformation.
+     */
+    private static double chiSquareQuantile(int df) {
+        double c = 2.0 / (9.0 * df);
+        return df * Math.pow(1.0 - c + Z_999*Math.sqrt(c), 3);
+    }
+}
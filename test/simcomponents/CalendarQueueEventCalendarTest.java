@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Bounds the rebuild cost of the calendar queue. In a bimodal hold model every
+ * polled event is rescheduled either shortly after the current time or far past
+ * it, so the calendar keeps emptying its near days and searching the bucket heads
+ * directly. The spacing of events is the same on both sides of the gap, so such
+ * a search must not rebuild the calendar; only its growth to the pending count
+ * may.
+ * 
+ * @author Gary R. Mayer
+ */
+public class CalendarQueueEventCalendarTest {
+    private static final int PENDING = 1000;
+    private static final int HOLDS = 200000;
+    private static final double GAP = 1e4;
+    private static final long MAX_RESIZES = 16L;
+    
+    @Test
+    public void directSearchesDoNotRebuildAtSameWidth() {
+        Random random = new Random(42L);
+        CalendarQueueEventCalendar calendar = new CalendarQueueEventCalendar();
+        Simulatable event = new Event();
+        long sequence = 0L;
+        
+        for (int i = 0; i < PENDING; i++) {
+            calendar.add(random.nextDouble(), 0, sequence++, event);
+        }
+        
+        for (int i = 0; i < HOLDS; i++) {
+            double now = calendar.peekTime();
+            calendar.poll();
+            
+            double delay = random.nextDouble() + (random.nextBoolean() ? 0.0 : GAP);
+            calendar.add(now + delay, 0, sequence++, event);
+        }
+        
+        assertEquals("pending events", PENDING, calendar.size());
+        assertTrue("calendar rebuilt " + calendar.getResizeCount() + " times",
+                calendar.getResizeCount() <= MAX_RESIZES);
+    }
+    
+    /**
+     * Event that does nothing.
+     */
+    private static class Event implements Simulatable {
+        @Override
+        public void execute() {
+        }
+        
+        @Override
+        public String getName() {
+            return "Event";
+        }
+        
+        @Override
+        public void register(EventObserver observer) {
+        }
+        
+        @Override
+        public void unregister(EventObserver observer) {
+        }
+    }
+}
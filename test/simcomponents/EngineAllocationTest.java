@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Measures the heap allocated per event by the engine in steady state, for each
+ * event calendar. A hold model keeps a fixed number of events pending: each event
+ * reschedules its Simulatable once it executes. The bytes allocated by the
+ * running thread, as reported by the JVM, are averaged over the run; scheduling
+ * must not allocate per event, so only the calendars' one-time growth remains.
+ * 
+ * @author Gary R. Mayer
+ */
+public class EngineAllocationTest {
+    private static final int PENDING = 1000;
+    private static final long EVENTS = 2000000L;
+    private static final double MAX_BYTES_PER_EVENT = 1.0;
+    
+    private TraceLevel traceLevel;
+    
+    @Before
+    public void setUp() {
+        this.traceLevel = SimTrace.getLevel();
+        SimTrace.setLevel(TraceLevel.OFF);
+    }
+    
+    @After
+    public void tearDown() {
+        SimTrace.setLevel(this.traceLevel);
+    }
+    
+    @Test
+    public void priorityQueueSchedulesWithoutAllocating() {
+        assertAllocationFree(EventCalendarType.PRIORITY_QUEUE);
+    }
+    
+    @Test
+    public void heapSchedulesWithoutAllocating() {
+        assertAllocationFree(EventCalendarType.HEAP);
+    }
+    
+    @Test
+    public void calendarQueueSchedulesWithoutAllocating() {
+        assertAllocationFree(EventCalendarType.CALENDAR_QUEUE);
+    }
+    
+    @Test
+    public void ladderQueueSchedulesWithoutAllocating() {
+        assertAllocationFree(EventCalendarType.LADDER_QUEUE);
+    }
+    
+    private static void assertAllocationFree(EventCalendarType type) {
+        assumeTrue("Thread allocation measurement is not supported", isMeasurable());
+        
+        // a first run lets the JIT compile the event loop
+        holdModel(type, EVENTS / 10);
+        
+        com.sun.management.ThreadMXBean threads
+                = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        holdModel(type, EVENTS);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        
+        double perEvent = (double) allocated / EVENTS;
+        assertTrue(type + " allocated " + perEvent + " bytes per event",
+                perEvent < MAX_BYTES_PER_EVENT);
+    }
+    
+    private static void holdModel(EventCalendarType type, long events) {
+        SimEngine engine = new SimEngine(type);
+        engine.setEndTime(Double.POSITIVE_INFINITY);
+        Holder holder = new Holder(engine, events);
+        
+        for (int i = 0; i < PENDING; i++) {
+            holder.execute();
+        }
+        
+        engine.simulate();
+    }
+    
+    private static boolean isMeasurable() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+            return false;
+        
+        com.sun.management.ThreadMXBean threads
+                = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        
+        if (!threads.isThreadAllocatedMemorySupported())
+            return false;
+        
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads.isThreadAllocatedMemoryEnabled();
+    }
+    
+    /**
+     * Simulatable that reschedules itself after an exponential delay each time it
+     * executes, until its event budget is used up. One instance stands for every
+     * pending event.
+     */
+    private static class Holder implements Simulatable {
+        private final EventObserver engine;
+        private final Random random;
+        private long remaining;
+        
+        Holder(EventObserver engine, long events) {
+            this.engine = engine;
+            this.random = new Random(1L);
+            this.remaining = events;
+        }
+        
+        @Override
+        public void execute() {
+            if (this.remaining > 0) {
+                this.remaining--;
+                this.engine.schedule(this, -Math.log(1.0 - this.random.nextDouble()));
+            }
+        }
+        
+        @Override
+        public String getName() {
+            return "holder";
+        }
+        
+        @Override
+        public void register(EventObserver observer) {
+        }
+        
+        @Override
+        public void unregister(EventObserver observer) {
+        }
+    }
+}
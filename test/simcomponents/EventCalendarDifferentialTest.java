@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Randomized differential test of the event calendars. Each trial drives a hold
+ * model--events scheduled at or after the time of the last polled event--through
+ * a calendar and through the PriorityQueue reference calendar, and requires both
+ * to hand back the same events in the same order. Delays mix simultaneous events,
+ * tiny and far-future offsets and bursts, which exercise bucket overflow, rung
+ * spawning and resizing.
+ * 
+ * @author Gary R. Mayer
+ */
+public class EventCalendarDifferentialTest {
+    private static final int TRIALS = 400;
+    
+    @Test(timeout = 120000)
+    public void heapMatchesPriorityQueue() {
+        runTrials(EventCalendarType.HEAP);
+    }
+    
+    @Test(timeout = 120000)
+    public void calendarQueueMatchesPriorityQueue() {
+        runTrials(EventCalendarType.CALENDAR_QUEUE);
+    }
+    
+    @Test(timeout = 120000)
+    public void ladderQueueMatchesPriorityQueue() {
+        runTrials(EventCalendarType.LADDER_QUEUE);
+    }
+    
+    private static void runTrials(EventCalendarType type) {
+        for (int trial = 0; trial < TRIALS; trial++) {
+            runTrial(type, trial);
+        }
+    }
+    
+    private static void runTrial(EventCalendarType type, long seed) {
+        Random random = new Random(seed);
+        EventCalendar reference = new PriorityQueueEventCalendar();
+        EventCalendar calendar = type.create();
+        String trial = type + " trial " + seed;
+        double now = 0.0;
+        long sequence = 0L;
+        int operations = 1000 + random.nextInt(4000);
+        
+        for (int op = 0; op < operations; op++) {
+            if (reference.isEmpty() || random.nextInt(10) < 5) {
+                int count = (random.nextInt(4) == 0) ? 1 + random.nextInt(50) : 1;
+                int mode = random.nextInt(5);
+                
+                for (int i = 0; i < count; i++) {
+                    double time = now + delay(random, mode);
+                    int priority = random.nextInt(3);
+                    Simulatable event = new Event(sequence);
+                    reference.add(time, priority, sequence, event);
+                    calendar.add(time, priority, sequence, event);
+                    sequence++;
+                }
+            }
+            else {
+                assertEquals(trial, reference.peekTime(), calendar.peekTime(), 0.0);
+                now = reference.peekTime();
+                assertSame(trial, reference.poll(), calendar.poll());
+            }
+            
+            assertEquals(trial, reference.size(), calendar.size());
+        }
+        
+        while (!reference.isEmpty()) {
+            assertSame(trial, reference.poll(), calendar.poll());
+        }
+        assertTrue(trial, calendar.isEmpty());
+    }
+    
+    private static double delay(Random random, int mode) {
+        switch (mode) {
+            case 0:
+                return 0.0;                                 // simultaneous
+            case 1:
+                return random.nextDouble() * 1e-6;          // tiny offsets
+            case 2:
+                return -Math.log(random.nextDouble());      // exponential
+            case 3:
+                return random.nextDouble() * 1e6;           // far future
+            default:
+                return Math.floor(random.nextDouble() * 5); // coarse ties
+        }
+    }
+    
+    /**
+     * Event identified only by its sequence number.
+     */
+    private static class Event implements Simulatable {
+        private final long id;
+        
+        Event(long id) {
+            this.id = id;
+        }
+        
+        @Override
+        public void execute() {
+        }
+        
+        @Override
+        public String getName() {
+            return "event " + this.id;
+        }
+        
+        @Override
+        public void register(EventObserver observer) {
+        }
+        
+        @Override
+        public void unregister(EventObserver observer) {
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests the circular job queue: first-in, first-out order across wraparound of
+ * the array, across growth while the contents are wrapped, and against an
+ * ArrayDeque for a seeded random mix of operations.
+ * 
+ * @author Gary R. Mayer
+ */
+public class JobQueueTest {
+    
+    @Test
+    public void wrapsAroundInOrder() {
+        JobQueue queue = new JobQueue();
+        ArrayDeque<Job> expected = new ArrayDeque<>();
+        
+        // move the head near the end of the initial array of 16, then wrap
+        for (int i = 0; i < 12; i++) {
+            add(queue, expected, new Job());
+        }
+        for (int i = 0; i < 10; i++) {
+            assertSame("job " + i, expected.poll(), queue.poll());
+        }
+        for (int i = 0; i < 12; i++) {
+            add(queue, expected, new Job());
+        }
+        
+        assertEquals("size", 14L, queue.size());
+        drain(queue, expected);
+    }
+    
+    @Test
+    public void growsWhileWrapped() {
+        JobQueue queue = new JobQueue();
+        ArrayDeque<Job> expected = new ArrayDeque<>();
+        
+        for (int i = 0; i < 16; i++) {
+            add(queue, expected, new Job());
+        }
+        for (int i = 0; i < 5; i++) {
+            assertSame("job " + i, expected.poll(), queue.poll());
+        }
+        
+        // the contents wrap when the array fills again, then double twice
+        for (int i = 0; i < 53; i++) {
+            add(queue, expected, new Job());
+        }
+        
+        assertEquals("size", 64L, queue.size());
+        drain(queue, expected);
+    }
+    
+    @Test
+    public void matchesArrayDeque() {
+        Random random = new Random(71L);
+        JobQueue queue = new JobQueue();
+        ArrayDeque<Job> expected = new ArrayDeque<>();
+        
+        for (int op = 0; op < 100000; op++) {
+            // drift the length up and down through several doublings
+            int bias = ((op / 5000) % 2 == 0) ? 6 : 4;
+            
+            if (random.nextInt(10) < bias) {
+                add(queue, expected, new Job());
+            }
+            else {
+                assertSame("operation " + op, expected.poll(), queue.poll());
+            }
+            assertEquals("operation " + op, expected.size(), queue.size());
+        }
+        
+        drain(queue, expected);
+    }
+    
+    private static void add(JobQueue queue, ArrayDeque<Job> expected, Job job) {
+        queue.add(job);
+        expected.add(job);
+    }
+    
+    private static void drain(JobQueue queue, ArrayDeque<Job> expected) {
+        while (!expected.isEmpty()) {
+            assertSame("drained job", expected.poll(), queue.poll());
+        }
+        
+        assertTrue("queue is empty", queue.isEmpty());
+        assertSame("poll of an empty queue", null, queue.poll());
+    }
+}
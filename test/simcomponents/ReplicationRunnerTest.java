@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import simstats.RunningStatistics;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests antithetic replications with a fixed master seed. The two runs of a pair
+ * must be negatively correlated, so a pair average varies less than the average
+ * of two independent runs, and the sequential procedure must stop on the
+ * confidence interval over the pair averages.
+ * 
+ * @author Gary R. Mayer
+ */
+public class ReplicationRunnerTest {
+    private static final long SEED = 12345L;
+    private static final double END_TIME = 40.0;
+    private static final int REPLICATIONS = 200;
+    private static final int PARALLELISM = 2;
+    
+    private TraceLevel traceLevel;
+    
+    @Before
+    public void setUp() {
+        this.traceLevel = SimTrace.getLevel();
+        SimTrace.setLevel(TraceLevel.OFF);
+    }
+    
+    @After
+    public void tearDown() {
+        SimTrace.setLevel(this.traceLevel);
+    }
+    
+    @Test
+    public void antitheticPairsVaryLessThanIndependentPairs() {
+        ReplicationRunner independent = new ReplicationRunner(SEED, END_TIME, PARALLELISM);
+        ReplicationRunner antithetic = new ReplicationRunner(SEED, END_TIME, PARALLELISM);
+        antithetic.setAntithetic(true);
+        
+        ReplicationSummary singles = independent.run(REPLICATIONS);
+        ReplicationSummary pairs = antithetic.run(REPLICATIONS);
+        
+        assertEquals("pairs", REPLICATIONS / 2, pairs.getPairJobsCompleted().getCount());
+        
+        // the average of two independent runs has half the variance of one
+        double independentVariance = singles.getJobsCompleted().getVariance() / 2.0;
+        double pairVariance = pairs.getPairJobsCompleted().getVariance();
+        assertTrue("pair variance " + pairVariance + " vs independent " + independentVariance,
+                pairVariance < 0.5 * independentVariance);
+    }
+    
+    @Test
+    public void stoppingRuleJudgesPairAverages() {
+        ReplicationRunner runner = new ReplicationRunner(SEED, END_TIME, PARALLELISM);
+        runner.setAntithetic(true);
+        SequentialStoppingRule rule = new SequentialStoppingRule(0.1);
+        rule.setReplicationLimits(10, 4000);
+        
+        ReplicationSummary summary = runner.run(rule);
+        int replications = summary.getReplications();
+        
+        assertTrue("replication limit reached", replications < rule.getMaxReplications());
+        assertEquals("odd replications", 0L, replications % 2);
+        assertTrue("pair interval", isPrecise(summary.getPairMeanTimeInSystem(), rule));
+        
+        // one pair earlier, each batch being one pair, the pair interval was too wide
+        ReplicationSummary previous = runner.run(replications - PARALLELISM);
+        assertTrue("stopped late", !rule.isSatisfied(previous));
+        assertTrue("previous pair interval", !isPrecise(previous.getPairMeanTimeInSystem(), rule));
+        
+        // while the interval that treats every run as independent already looked precise
+        assertTrue("previous replication interval", isPrecise(previous.getMeanTimeInSystem(), rule));
+    }
+    
+    private static boolean isPrecise(RunningStatistics stats, SequentialStoppingRule rule) {
+        return stats.getHalfWidth(rule.getConfidence())
+                <= rule.getRelativePrecision() * Math.abs(stats.getMean());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2017, Gary R. Mayer
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package simcomponents;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests the server pool: slots fill up to the number of servers, a finished slot
+ * is reused first, and finishing an idle server is an error.
+ * 
+ * @author Gary R. Mayer
+ */
+public class ServerPoolTest {
+    
+    @Test
+    public void fillsAndReusesSlots() {
+        ServerPool pool = new ServerPool(3);
+        Job[] jobs = {new Job(), new Job(), new Job(), new Job()};
+        
+        // low slots are handed out first
+        for (int i = 0; i < 3; i++) {
+            assertEquals("slot of job " + i, i, pool.start(jobs[i]));
+        }
+        assertEquals("busy servers", 3L, pool.getBusyCount());
+        assertTrue("idle server in a full pool", !pool.hasIdleServer());
+        assertEquals("start on a full pool", -1L, pool.start(jobs[3]));
+        
+        assertSame("finished job", jobs[1], pool.finish(1));
+        assertEquals("busy servers", 2L, pool.getBusyCount());
+        assertEquals("reused slot", 1L, pool.start(jobs[3]));
+        
+        assertSame("slot 0", jobs[0], pool.finish(0));
+        assertSame("slot 1", jobs[3], pool.finish(1));
+        assertSame("slot 2", jobs[2], pool.finish(2));
+        assertEquals("busy servers", 0L, pool.getBusyCount());
+    }
+    
+    @Test
+    public void finishingAnIdleServerFails() {
+        ServerPool pool = new ServerPool(2);
+        pool.start(new Job());
+        
+        try {
+            pool.finish(1);
+            fail("finished an idle server");
+        } catch (IllegalStateException ise) {
+            assertEquals("busy servers", 1L, pool.getBusyCount());
+        }
+    }
+    
+    @Test
+    public void negativeServerCountGivesEmptyPool() {
+        ServerPool pool = new ServerPool(-1);
+        
+        assertEquals("size", 0L, pool.size());
+        assertEquals("start on an empty pool", -1L, pool.start(new Job()));
+    }
+}